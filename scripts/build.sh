@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Compiles the app into out/inventory.jar
+# Class data sharing only archives classes loaded from jar files, so the app is always run from the jar
+# @author Andre Simmons
+set -e
+source "$(dirname "$0")/env.sh"
+
+rm -rf "$OUT/classes"
+mkdir -p "$OUT/classes"
+"$JAVAC" "${FX_OPTIONS[@]}" -d "$OUT/classes" $(find "$ROOT/src" -name "*.java")
+cp -r "$ROOT/src/view" "$OUT/classes/"
+"$JAR_TOOL" --create --file "$JAR" --main-class main.Main -C "$OUT/classes" .
+echo "Built $JAR"
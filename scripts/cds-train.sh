@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Records the startup archive from a training run that opens every screen once and exits
+# JDK 25 and later write an AOT cache in one run, JDK 24 records then creates it,
+# and JDK 13 to 23 write a dynamic class data sharing archive
+# Run again after changing the code; the JVM ignores an archive that no longer matches the jar
+# @author Andre Simmons
+set -e
+source "$(dirname "$0")/env.sh"
+build_if_needed
+
+rm -f "$AOT_CACHE" "$AOT_CONFIG" "$CDS_ARCHIVE"
+cd "$ROOT"
+if [ "$JAVA_VERSION" -ge 25 ]; then
+    "$JAVA" -XX:AOTCacheOutput="$AOT_CACHE" "${FX_OPTIONS[@]}" -cp "$JAR" main.Main --training-run
+    echo "Wrote $AOT_CACHE"
+elif [ "$JAVA_VERSION" -ge 24 ]; then
+    "$JAVA" -XX:AOTMode=record -XX:AOTConfiguration="$AOT_CONFIG" "${FX_OPTIONS[@]}" -cp "$JAR" main.Main --training-run
+    "$JAVA" -XX:AOTMode=create -XX:AOTConfiguration="$AOT_CONFIG" -XX:AOTCache="$AOT_CACHE" "${FX_OPTIONS[@]}" -cp "$JAR"
+    echo "Wrote $AOT_CACHE"
+elif [ "$JAVA_VERSION" -ge 13 ]; then
+    "$JAVA" -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" "${FX_OPTIONS[@]}" -cp "$JAR" main.Main --training-run
+    echo "Wrote $CDS_ARCHIVE"
+else
+    echo "Startup archives need JDK 13 or later, found $JAVA_VERSION" >&2
+    exit 1
+fi
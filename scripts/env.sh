@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Shared settings for the build and launch scripts, sourced by each of them
+# PATH_TO_FX must point at the lib directory of a JavaFX SDK, for example /opt/javafx-sdk-21/lib
+# @author Andre Simmons
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+OUT="$ROOT/out"
+JAR="$OUT/inventory.jar"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAVAC="${JAVA_HOME:+$JAVA_HOME/bin/}javac"
+JAR_TOOL="${JAVA_HOME:+$JAVA_HOME/bin/}jar"
+
+# AOT cache written by JDK 24 and later, class data sharing archive written by JDK 13 to 23
+AOT_CACHE="$OUT/inventory.aot"
+AOT_CONFIG="$OUT/inventory.aotconf"
+CDS_ARCHIVE="$OUT/inventory.jsa"
+
+if [ -z "$PATH_TO_FX" ]; then
+    echo "Set PATH_TO_FX to the lib directory of a JavaFX SDK" >&2
+    exit 1
+fi
+
+FX_OPTIONS=(--module-path "$PATH_TO_FX" --add-modules javafx.controls,javafx.fxml)
+
+# Feature version of the JDK, for example 21
+JAVA_VERSION="$("$JAVA" -version 2>&1 | head -n 1 | sed -E 's/.*version "([0-9]+).*/\1/')"
+
+# Builds the app jar if it is missing or older than any source file
+build_if_needed() {
+    if [ ! -f "$JAR" ] || [ -n "$(find "$ROOT/src" -newer "$JAR" -type f | head -n 1)" ]; then
+        "$ROOT/scripts/build.sh"
+    fi
+}
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Launches the app, using the startup archive written by cds-train.sh when there is one
+# Set NO_ARCHIVE=1 to launch without it. Arguments are passed to the app, for example --profile-startup
+# @author Andre Simmons
+set -e
+source "$(dirname "$0")/env.sh"
+build_if_needed
+
+ARCHIVE_OPTIONS=()
+if [ -z "$NO_ARCHIVE" ]; then
+    if [ -f "$AOT_CACHE" ] && [ "$JAVA_VERSION" -ge 24 ]; then
+        ARCHIVE_OPTIONS=(-XX:AOTCache="$AOT_CACHE")
+    elif [ -f "$CDS_ARCHIVE" ]; then
+        ARCHIVE_OPTIONS=(-XX:SharedArchiveFile="$CDS_ARCHIVE")
+    fi
+fi
+
+cd "$ROOT"
+exec "$JAVA" "${ARCHIVE_OPTIONS[@]}" "${FX_OPTIONS[@]}" -cp "$JAR" main.Main "$@"
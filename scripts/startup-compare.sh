@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Measures startup with and without the startup archive
+# Each run opens every screen once and exits, and the time until the first screen was shown is reported
+# Usage: scripts/startup-compare.sh [runs], default 5 runs of each
+# @author Andre Simmons
+set -e
+source "$(dirname "$0")/env.sh"
+RUNS="${1:-5}"
+
+if [ ! -f "$AOT_CACHE" ] && [ ! -f "$CDS_ARCHIVE" ]; then
+    "$ROOT/scripts/cds-train.sh"
+fi
+
+# Prints the milliseconds from JVM start to the first screen of one run
+first_screen_millis() {
+    "$ROOT/scripts/run.sh" --profile-startup --training-run | awk '/first screen shown/ {print $1; exit}'
+}
+
+for mode in without with; do
+    total=0
+    for ((i = 1; i <= RUNS; i++)); do
+        if [ "$mode" = without ]; then
+            millis="$(NO_ARCHIVE=1 first_screen_millis)"
+        else
+            millis="$(first_screen_millis)"
+        fi
+        total=$((total + millis))
+    done
+    echo "$mode archive: first screen after $((total / RUNS)) ms on average over $RUNS runs"
+done
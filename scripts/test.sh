@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Compiles the app with the tests in test/ and runs every test class, stopping at the first one that fails
+# Each test class has a main method and exits with an error when a check fails. Pass class names to run only those
+# @author Andre Simmons
+set -e
+source "$(dirname "$0")/env.sh"
+
+CLASSES="$OUT/test-classes"
+rm -rf "$CLASSES"
+mkdir -p "$CLASSES"
+"$JAVAC" "${FX_OPTIONS[@]}" -d "$CLASSES" $(find "$ROOT/src" "$ROOT/test" -name "*.java")
+
+TESTS=("$@")
+if [ ${#TESTS[@]} -eq 0 ]; then
+    for file in $(cd "$ROOT/test" && find . -name "*Test.java" | sort); do
+        file="${file#./}"
+        TESTS+=("$(echo "${file%.java}" | tr / .)")
+    done
+fi
+
+cd "$ROOT"
+for test in "${TESTS[@]}"; do
+    "$JAVA" "${FX_OPTIONS[@]}" -cp "$CLASSES" "$test"
+done
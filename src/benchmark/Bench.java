@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Small timing harness for the benchmarks
+ * Runs an operation for a warm-up period and then a measured period,
+ * and reports throughput, latency percentiles and bytes allocated per operation
+ * @author Andre Simmons
+ */
+public class Bench {
+
+    /**
+     * Warm-up time in milliseconds
+     */
+    private static final long WARMUP_MILLIS = 1000;
+
+    /**
+     * Measured time in milliseconds
+     */
+    private static final long MEASURE_MILLIS = 2000;
+
+    /**
+     * Most latency samples kept per run
+     */
+    private static final int MAX_SAMPLES = 1 << 20;
+
+    /**
+     * Value kept so the JIT cannot drop benchmark results
+     */
+    public static volatile long sink;
+
+    /**
+     * Prints the table header
+     */
+    public static void printHeader(){
+        System.out.printf("%-40s %10s %14s %10s %10s %10s %12s%n",
+                "benchmark", "size", "ops/s", "p50 ns", "p99 ns", "p99.9 ns", "bytes/op");
+    }
+
+    /**
+     * function to run one benchmark and print its result line
+     * The operation is called with an increasing counter, which it can use to pick its input
+     * @param name
+     * @param size
+     * @param operation
+     */
+    public static void run(String name, int size, IntConsumer operation){
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000;
+        int counter = 0;
+        while(System.nanoTime() < warmupEnd){
+            operation.accept(counter++);
+        }
+
+        long[] samples = new long[MAX_SAMPLES];
+        int sampleCount = 0;
+        long operations = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + MEASURE_MILLIS * 1_000_000;
+        long now = start;
+        while(now < end){
+            operation.accept(counter++);
+            long after = System.nanoTime();
+            if(sampleCount < MAX_SAMPLES){
+                samples[sampleCount++] = after - now;
+            }
+            now = after;
+            operations++;
+        }
+        long elapsed = now - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Arrays.sort(samples, 0, sampleCount);
+        System.out.printf("%-40s %10d %14.0f %10d %10d %10d %12.1f%n",
+                name, size, operations * 1e9 / elapsed,
+                percentile(samples, sampleCount, 0.50),
+                percentile(samples, sampleCount, 0.99),
+                percentile(samples, sampleCount, 0.999),
+                allocated < 0 ? Double.NaN : (double) allocated / operations);
+    }
+
+    /**
+     * function to read a percentile from sorted samples
+     * @param samples
+     * @param count
+     * @param fraction
+     * @return sample at the percentile
+     */
+    private static long percentile(long[] samples, int count, double fraction){
+        if(count == 0){
+            return 0;
+        }
+        return samples[Math.min(count - 1, (int) (count * fraction))];
+    }
+
+    /**
+     * function to read the bytes allocated by the current thread
+     * @return allocated bytes, or -1 if the JVM cannot report it
+     */
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
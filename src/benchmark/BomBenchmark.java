@@ -0,0 +1,73 @@
+package benchmark;
+
+import model.BomExplosion;
+import model.InHouse;
+import model.Inventory;
+import model.Part;
+import model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks bill of materials explosion over generated catalogs of nested products
+ * Level 0 products are built from parts only, and products on each higher level are built from
+ * products on the level below plus a few parts, so top level products share most of their sub-assemblies
+ *
+ * Usage: java benchmark.BomBenchmark [parts] [products per level] [levels] [children per product]
+ * defaults: 100000 parts, 2000 products per level, 6 levels, 4 children per product
+ * @author Andre Simmons
+ */
+public class BomBenchmark {
+
+    /**
+     * Runs the benchmarks
+     * @param args
+     */
+    public static void main(String[] args){
+        int partCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int productsPerLevel = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int levels = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        int children = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        Random random = new Random(42);
+
+        List<Part> parts = new ArrayList<>(partCount);
+        for(int i = 0; i < partCount; i++){
+            parts.add(new InHouse(Inventory.getNewPartId(), "Part " + i, 1, 5, 1, 10, 100));
+        }
+        Inventory.addAllParts(parts);
+
+        List<Product> level = new ArrayList<>();
+        for(int depth = 0; depth < levels; depth++){
+            List<Product> nextLevel = new ArrayList<>(productsPerLevel);
+            for(int i = 0; i < productsPerLevel; i++){
+                Product product = new Product(Inventory.getNewProductId(), "Assembly " + depth + "-" + i, 1, 5, 1, 10);
+                for(int j = 0; j < children; j++){
+                    product.addAssociatedPart(parts.get(random.nextInt(partCount)), 1 + random.nextInt(4));
+                    if(!level.isEmpty()){
+                        product.addSubAssembly(level.get(random.nextInt(level.size())), 1 + random.nextInt(3));
+                    }
+                }
+                nextLevel.add(product);
+            }
+            Inventory.addAllProducts(nextLevel);
+            level = nextLevel;
+        }
+        Product[] top = level.toArray(new Product[0]);
+        int catalogSize = Inventory.getAllProducts().size();
+
+        System.out.println("parts=" + partCount + " products=" + catalogSize + " levels=" + levels + " children=" + children);
+        Bench.printHeader();
+        Bench.run("explode, new engine", catalogSize,
+                i -> Bench.sink += new BomExplosion().explode(top[i % top.length], 10).size());
+        ForkJoinPool single = new ForkJoinPool(1);
+        Bench.run("explode, new engine, 1 thread", catalogSize,
+                i -> Bench.sink += new BomExplosion(single).explode(top[i % top.length], 10).size());
+        BomExplosion warm = new BomExplosion();
+        Bench.run("explode, memoized engine", catalogSize,
+                i -> Bench.sink += warm.explode(top[i % top.length], 10).size());
+        single.shutdown();
+    }
+}
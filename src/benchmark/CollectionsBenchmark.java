@@ -0,0 +1,130 @@
+package benchmark;
+
+import collections.IntIntMap;
+import collections.IntObjectMap;
+import collections.IntSet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmarks the int keyed collections against the java.util collections they replace
+ * Keys are sequential ids looked up in random order, like part and product ids
+ * The build cases fill a new collection of 1000 keys per operation, so their bytes/op shows the memory each
+ * collection needs per key, including the boxed keys and entry objects of the java.util collections
+ *
+ * Usage: java benchmark.CollectionsBenchmark [size]
+ * default size: 1000000
+ * @author Andre Simmons
+ */
+public class CollectionsBenchmark {
+
+    /**
+     * Number of keys in each collection built by the build cases
+     */
+    private static final int BUILD_SIZE = 1_000;
+
+    /**
+     * Runs the benchmarks
+     * @param args
+     */
+    public static void main(String[] args){
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] lookups = new int[1 << 20];
+        Random random = new Random(42);
+        for(int i = 0; i < lookups.length; i++){
+            lookups[i] = 1 + random.nextInt(size);
+        }
+        int mask = lookups.length - 1;
+
+        IntObjectMap<String> intObjectMap = new IntObjectMap<>();
+        Map<Integer, String> hashMap = new HashMap<>();
+        IntIntMap intIntMap = new IntIntMap();
+        Map<Integer, Integer> countMap = new HashMap<>();
+        IntSet intSet = new IntSet();
+        Set<Integer> hashSet = new HashSet<>();
+        for(int id = 1; id <= size; id++){
+            String value = "Part " + id;
+            intObjectMap.put(id, value);
+            hashMap.put(id, value);
+            intIntMap.put(id, id);
+            countMap.put(id, id);
+            intSet.add(id);
+            hashSet.add(id);
+        }
+
+        Bench.printHeader();
+        Bench.run("get, IntObjectMap", size,
+                i -> Bench.sink += intObjectMap.get(lookups[i & mask]).length());
+        Bench.run("get, HashMap<Integer, Object>", size,
+                i -> Bench.sink += hashMap.get(lookups[i & mask]).length());
+        Bench.run("remove and put back, IntObjectMap", size, i -> {
+            int id = lookups[i & mask];
+            intObjectMap.put(id, intObjectMap.remove(id));
+        });
+        Bench.run("remove and put back, HashMap", size, i -> {
+            int id = lookups[i & mask];
+            hashMap.put(id, hashMap.remove(id));
+        });
+        Bench.run("count up and down, IntIntMap", size, i -> {
+            int id = lookups[i & mask];
+            intIntMap.add(id, 1);
+            Bench.sink += intIntMap.add(id, -1);
+        });
+        Bench.run("count up and down, HashMap<Integer, Integer>", size, i -> {
+            int id = lookups[i & mask];
+            countMap.merge(id, 1, Integer::sum);
+            Bench.sink += countMap.merge(id, -1, Integer::sum);
+        });
+        Bench.run("contains, IntSet", size,
+                i -> Bench.sink += intSet.contains(lookups[i & mask]) ? 1 : 0);
+        Bench.run("contains, HashSet<Integer>", size,
+                i -> Bench.sink += hashSet.contains(lookups[i & mask]) ? 1 : 0);
+
+        Bench.run("build, IntObjectMap", BUILD_SIZE, i -> {
+            IntObjectMap<String> map = new IntObjectMap<>();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                map.put(i + id, "");
+            }
+            Bench.sink += map.size();
+        });
+        Bench.run("build, HashMap<Integer, Object>", BUILD_SIZE, i -> {
+            Map<Integer, String> map = new HashMap<>();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                map.put(i + id, "");
+            }
+            Bench.sink += map.size();
+        });
+        Bench.run("build, IntIntMap", BUILD_SIZE, i -> {
+            IntIntMap map = new IntIntMap();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                map.add(i + id, 1);
+            }
+            Bench.sink += map.size();
+        });
+        Bench.run("build, HashMap<Integer, Integer>", BUILD_SIZE, i -> {
+            Map<Integer, Integer> map = new HashMap<>();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                map.merge(i + id, 1, Integer::sum);
+            }
+            Bench.sink += map.size();
+        });
+        Bench.run("build, IntSet", BUILD_SIZE, i -> {
+            IntSet set = new IntSet();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                set.add(i + id);
+            }
+            Bench.sink += set.size();
+        });
+        Bench.run("build, HashSet<Integer>", BUILD_SIZE, i -> {
+            Set<Integer> set = new HashSet<>();
+            for(int id = 1; id <= BUILD_SIZE; id++){
+                set.add(i + id);
+            }
+            Bench.sink += set.size();
+        });
+    }
+}
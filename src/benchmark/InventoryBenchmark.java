@@ -0,0 +1,190 @@
+package benchmark;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.InHouse;
+import model.Inventory;
+import model.Outsourced;
+import model.Part;
+import model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks the Inventory operations used by the screens at different catalog sizes
+ * Covers id lookups, delete, replace, indexed search and the old controller search loop for comparison
+ *
+ * Usage: java benchmark.InventoryBenchmark [sizes] [name distribution] [id distribution]
+ * sizes: comma separated catalog sizes, default 1000,10000,100000,1000000 (10000000 needs a large heap)
+ * name distribution: unique ("Part 123") or words (two words from a skewed vocabulary), default words
+ * id distribution: uniform or hot (90% of lookups hit 1% of ids), default uniform
+ * @author Andre Simmons
+ */
+public class InventoryBenchmark {
+
+    /**
+     * Number of different words used for names
+     */
+    private static final int VOCABULARY_SIZE = 2000;
+
+    /**
+     * Number of lookup keys prepared before each run
+     */
+    private static final int KEY_COUNT = 1 << 16;
+
+    /**
+     * Runs the benchmarks
+     * @param args
+     */
+    public static void main(String[] args){
+        String[] sizes = (args.length > 0 ? args[0] : "1000,10000,100000,1000000").split(",");
+        String nameDistribution = args.length > 1 ? args[1] : "words";
+        String idDistribution = args.length > 2 ? args[2] : "uniform";
+        Random random = new Random(42);
+
+        System.out.println("names=" + nameDistribution + " ids=" + idDistribution);
+        Bench.printHeader();
+        for(String sizeText : sizes){
+            int size = Integer.parseInt(sizeText.trim());
+            fill(size, nameDistribution, random);
+
+            int[] allPartIds = Inventory.getAllParts().stream().mapToInt(Part::getId).toArray();
+            int[] allProductIds = Inventory.getAllProducts().stream().mapToInt(Product::getId).toArray();
+            int[] partIds = keys(idDistribution, allPartIds, random);
+            int[] productIds = keys(idDistribution, allProductIds, random);
+            String[] queries = queries(nameDistribution, random);
+
+            Bench.run("lookupPart(int)", size, i -> Bench.sink += Inventory.lookupPart(partIds[i & (KEY_COUNT - 1)]).getStock());
+            Bench.run("lookupProduct(int)", size, i -> Bench.sink += Inventory.lookupProduct(productIds[i & (KEY_COUNT - 1)]).getStock());
+            Bench.run("searchParts(String)", size, i -> Bench.sink += Inventory.searchParts(queries[i & (queries.length - 1)]).size());
+            Bench.run("controller scan search", size, i -> Bench.sink += scanSearch(queries[i & (queries.length - 1)]).size());
+            Bench.run("deletePart + addPart", size, i -> {
+                Part part = Inventory.lookupPart(partIds[i & (KEY_COUNT - 1)]);
+                Inventory.deletePart(part);
+                Inventory.addPart(part);
+            });
+            Bench.run("replacePart", size, i -> {
+                Part part = Inventory.lookupPart(partIds[i & (KEY_COUNT - 1)]);
+                Inventory.replacePart(new InHouse(part.getId(), part.getName(), part.getPrice(), part.getStock(),
+                        part.getMin(), part.getMax(), 101));
+            });
+        }
+    }
+
+    /**
+     * function to replace the inventory with generated parts and products
+     * Every tenth part is also made into a product using the part and its neighbour
+     * @param size
+     * @param nameDistribution
+     * @param random
+     */
+    private static void fill(int size, String nameDistribution, Random random){
+        Inventory.deleteAllProducts(new ArrayList<>(Inventory.getAllProducts()));
+        Inventory.deleteAllParts(new ArrayList<>(Inventory.getAllParts()));
+
+        List<Part> parts = new ArrayList<>(size);
+        List<Product> products = new ArrayList<>(size / 10);
+        for(int i = 0; i < size; i++){
+            String name = name(nameDistribution, i, random);
+            Part part = i % 2 == 0
+                    ? new InHouse(Inventory.getNewPartId(), name, 1 + random.nextInt(500), 5, 1, 10, 100 + i % 50)
+                    : new Outsourced(Inventory.getNewPartId(), name, 1 + random.nextInt(500), 5, 1, 10, "Company " + i % 50);
+            parts.add(part);
+            if(i % 10 == 9){
+                Product product = new Product(Inventory.getNewProductId(), name + " Kit", 100, 5, 1, 10);
+                product.addAssociatedPart(parts.get(i - 1));
+                product.addAssociatedPart(part);
+                products.add(product);
+            }
+        }
+        Inventory.addAllParts(parts);
+        Inventory.addAllProducts(products);
+    }
+
+    /**
+     * function to build a name for generated part number i
+     * @param nameDistribution
+     * @param i
+     * @param random
+     * @return part name
+     */
+    private static String name(String nameDistribution, int i, Random random){
+        if(nameDistribution.equals("unique")){
+            return "Part " + i;
+        }
+        return word(skewed(random, VOCABULARY_SIZE)) + " " + word(random.nextInt(VOCABULARY_SIZE));
+    }
+
+    /**
+     * function to build vocabulary word number n
+     * @param n
+     * @return word
+     */
+    private static String word(int n){
+        return Integer.toString(n * 7919 + 1000, 36);
+    }
+
+    /**
+     * function to pick a number below a bound where small numbers are much more likely
+     * @param random
+     * @param bound
+     * @return skewed number
+     */
+    private static int skewed(Random random, int bound){
+        return (int) (bound * Math.pow(random.nextDouble(), 3));
+    }
+
+    /**
+     * function to prepare lookup ids
+     * @param idDistribution
+     * @param ids
+     * @param random
+     * @return ids to look up
+     */
+    private static int[] keys(String idDistribution, int[] ids, Random random){
+        int[] keys = new int[KEY_COUNT];
+        int hotCount = Math.max(1, ids.length / 100);
+        for(int i = 0; i < KEY_COUNT; i++){
+            int index = idDistribution.equals("hot") && random.nextInt(10) != 0
+                    ? random.nextInt(hotCount)
+                    : random.nextInt(ids.length);
+            keys[i] = ids[index];
+        }
+        return keys;
+    }
+
+    /**
+     * function to prepare search texts of different lengths
+     * @param nameDistribution
+     * @param random
+     * @return search texts, a power of two in number
+     */
+    private static String[] queries(String nameDistribution, Random random){
+        String[] queries = new String[256];
+        for(int i = 0; i < queries.length; i++){
+            String text = nameDistribution.equals("unique")
+                    ? "Part " + random.nextInt(1000)
+                    : word(skewed(random, VOCABULARY_SIZE));
+            queries[i] = text.substring(0, 1 + random.nextInt(text.length()));
+        }
+        return queries;
+    }
+
+    /**
+     * The search loop the controllers used before the search index
+     * @param searchString
+     * @return parts whose id or name contains the search text
+     */
+    private static ObservableList<Part> scanSearch(String searchString){
+        ObservableList<Part> partsFound = FXCollections.observableArrayList();
+        for(Part part : Inventory.getAllParts()){
+            if(String.valueOf(part.getId()).contains(searchString) ||
+                    part.getName().contains(searchString)){
+                partsFound.add(part);
+            }
+        }
+        return partsFound;
+    }
+}
@@ -0,0 +1,154 @@
+package benchmark;
+
+import model.InHouse;
+import model.Inventory;
+import model.Part;
+import server.InventoryServer;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for the HTTP/JSON server
+ * Starts the server in this process on a free port, fills the inventory and has client threads
+ * look up random parts by id over keep-alive connections for a fixed time
+ * The clients write requests straight to sockets so the client side costs little next to the server
+ *
+ * Usage: java benchmark.ServerLoadTest [parts] [client threads] [seconds]
+ * defaults: 100000 parts, 16 client threads, 10 seconds
+ * @author Andre Simmons
+ */
+public class ServerLoadTest {
+
+    /**
+     * Runs the load test
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        int partCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        List<Part> parts = new ArrayList<>(partCount);
+        for(int i = 0; i < partCount; i++){
+            parts.add(new InHouse(Inventory.getNewPartId(), "Part " + i, 10, 5, 1, 10, 100 + i % 50));
+        }
+        Inventory.addAllParts(parts);
+        int[] ids = parts.stream().mapToInt(Part::getId).toArray();
+
+        InventoryServer server = new InventoryServer(0);
+        server.start();
+
+        AtomicLong requests = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] threads = new Thread[clients];
+        for(int t = 0; t < clients; t++){
+            int client = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(client);
+                long[] samples = new long[1 << 20];
+                int count = 0;
+                try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())){
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    while(System.nanoTime() < end){
+                        long start = System.nanoTime();
+                        out.write(("GET /parts/" + ids[random.nextInt(ids.length)] + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                                .getBytes(StandardCharsets.US_ASCII));
+                        out.flush();
+                        if(readResponse(in) != 200){
+                            failures.incrementAndGet();
+                        }
+                        if(count < samples.length){
+                            samples[count++] = System.nanoTime() - start;
+                        }
+                        requests.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                }
+                latencies[client] = Arrays.copyOf(samples, count);
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        server.stop();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("parts=%d clients=%d seconds=%d%n", partCount, clients, seconds);
+        System.out.printf("lookups/s=%.0f failures=%d%n", requests.get() / (double) seconds, failures.get());
+        System.out.printf("p50=%.1fus p99=%.1fus p99.9=%.1fus%n", percentile(all, 0.50) / 1000.0,
+                percentile(all, 0.99) / 1000.0, percentile(all, 0.999) / 1000.0);
+    }
+
+    /**
+     * function to read one HTTP response from a keep-alive connection
+     * @param in
+     * @return response status
+     * @throws IOException
+     */
+    private static int readResponse(InputStream in) throws IOException {
+        int status = -1;
+        int contentLength = 0;
+        String line;
+        while(!(line = readLine(in)).isEmpty()){
+            if(status < 0){
+                status = Integer.parseInt(line.substring(9, 12));
+            } else if(line.regionMatches(true, 0, "Content-Length:", 0, 15)){
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        in.skipNBytes(contentLength);
+        return status;
+    }
+
+    /**
+     * function to read one header line
+     * @param in
+     * @return line without the line break
+     * @throws IOException
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while((c = in.read()) != '\n'){
+            if(c < 0){
+                throw new EOFException("Connection closed");
+            }
+            if(c != '\r'){
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * function to read a percentile from sorted samples
+     * @param sorted
+     * @param fraction
+     * @return sample at the percentile
+     */
+    private static long percentile(long[] sorted, double fraction){
+        if(sorted.length == 0){
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
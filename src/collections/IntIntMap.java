@@ -0,0 +1,281 @@
+package collections;
+
+/**
+ * Maps an int key to an int value without boxing either, for counts and row numbers kept by id
+ * Uses open addressing with linear probing over two int arrays. Key 0 marks an empty slot,
+ * so an entry for key 0 is kept in its own fields
+ * Removing shifts later entries back instead of leaving tombstones, so lookups stay short after many deletions
+ * @author Andre Simmons
+ */
+public class IntIntMap {
+
+    /**
+     * Smallest table size, must be a power of two
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Key stored in each slot, 0 if the slot is empty
+     */
+    private int[] keys;
+
+    /**
+     * Value stored in each slot
+     */
+    private int[] values;
+
+    /**
+     * Number of keys in the table, not counting key 0
+     */
+    private int tableSize;
+
+    /**
+     * True if key 0 has a value
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Value of key 0
+     */
+    private int zeroValue;
+
+    /**
+     * Called with each entry of a map
+     */
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    /**
+     * Constructor variable for an empty map
+     */
+    public IntIntMap(){
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructor variable for an empty map that holds a number of keys without growing
+     * @param expectedSize
+     */
+    public IntIntMap(int expectedSize){
+        int capacity = Tables.capacityFor(expectedSize, MIN_CAPACITY);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * size get function
+     * @return number of keys in the map
+     */
+    public int size(){return tableSize + (hasZeroKey ? 1 : 0);}
+
+    /**
+     * function to check for no keys
+     * @return true if the map is empty
+     */
+    public boolean isEmpty(){return size() == 0;}
+
+    /**
+     * function to check for a key
+     * @param key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key){return key == 0 ? hasZeroKey : find(key) >= 0;}
+
+    /**
+     * function to find the value of a key, for use as a counter
+     * @param key
+     * @return value of the key, 0 if it has none
+     */
+    public int get(int key){return getOrDefault(key, 0);}
+
+    /**
+     * function to find the value of a key
+     * @param key
+     * @param defaultValue
+     * @return value of the key, or the default value if it has none
+     */
+    public int getOrDefault(int key, int defaultValue){
+        if(key == 0){
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * function to store a value for a key, replacing any previous value
+     * @param key
+     * @param value
+     * @return previous value, 0 if the key had none
+     */
+    public int put(int key, int value){
+        if(key == 0){
+            int previous = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = find(key);
+        if(slot >= 0){
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(key, value);
+        return 0;
+    }
+
+    /**
+     * function to add to the value of a key, for use as a counter
+     * A key whose value reaches 0 is removed, so the map only holds non-zero counts
+     * @param key
+     * @param delta
+     * @return new value of the key
+     */
+    public int add(int key, int delta){
+        if(key == 0){
+            int value = zeroValue + delta;
+            hasZeroKey = value != 0;
+            zeroValue = value;
+            return value;
+        }
+        int slot = find(key);
+        if(slot < 0){
+            if(delta != 0){
+                insert(key, delta);
+            }
+            return delta;
+        }
+        int value = values[slot] + delta;
+        if(value == 0){
+            removeSlot(slot);
+        } else {
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * function to remove a key from the map
+     * @param key
+     * @return removed value, 0 if the key had none
+     */
+    public int remove(int key){
+        if(key == 0){
+            int previous = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return previous;
+        }
+        int slot = find(key);
+        if(slot < 0){
+            return 0;
+        }
+        int removed = values[slot];
+        removeSlot(slot);
+        return removed;
+    }
+
+    /**
+     * function to remove every key from the map
+     */
+    public void clear(){
+        keys = new int[MIN_CAPACITY];
+        values = new int[MIN_CAPACITY];
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * function to visit every entry, in no particular order
+     * The map must not be changed while it is visited
+     * @param action
+     */
+    public void forEach(EntryConsumer action){
+        if(hasZeroKey){
+            action.accept(0, zeroValue);
+        }
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != 0){
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * function to find the slot of a key other than 0
+     * @param key
+     * @return slot of the key, or -1 if it is not in the table
+     */
+    private int find(int key){
+        int mask = keys.length - 1;
+        for(int slot = Tables.hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask){
+            if(keys[slot] == key){
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * function to add a key other than 0 that is not in the table
+     * @param key
+     * @param value
+     */
+    private void insert(int key, int value){
+        if(Tables.mustGrow(tableSize + 1, keys.length)){
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(keys[slot] != 0){
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        tableSize++;
+    }
+
+    /**
+     * function to empty a slot
+     * Shifts later entries of the probe run back so lookups never stop early
+     * @param slot
+     */
+    private void removeSlot(int slot){
+        int mask = keys.length - 1;
+        int gap = slot;
+        for(int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask){
+            if(Tables.canFill(gap, next, Tables.hash(keys[next]) & mask, mask)){
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        tableSize--;
+    }
+
+    /**
+     * function to rebuild the table at a new size
+     * @param capacity
+     */
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != 0){
+                int slot = Tables.hash(oldKeys[i]) & mask;
+                while(keys[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
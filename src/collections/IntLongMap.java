@@ -0,0 +1,300 @@
+package collections;
+
+/**
+ * Maps an int key to a long value without boxing either, for totals kept by id that may not fit in an int
+ * Uses open addressing with linear probing over an int and a long array. Key 0 marks an empty slot,
+ * so an entry for key 0 is kept in its own fields
+ * Removing shifts later entries back instead of leaving tombstones, so lookups stay short after many deletions
+ * @author Andre Simmons
+ */
+public class IntLongMap {
+
+    /**
+     * Smallest table size, must be a power of two
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Key stored in each slot, 0 if the slot is empty
+     */
+    private int[] keys;
+
+    /**
+     * Value stored in each slot
+     */
+    private long[] values;
+
+    /**
+     * Number of keys in the table, not counting key 0
+     */
+    private int tableSize;
+
+    /**
+     * True if key 0 has a value
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Value of key 0
+     */
+    private long zeroValue;
+
+    /**
+     * Called with each entry of a map
+     */
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    /**
+     * Constructor variable for an empty map
+     */
+    public IntLongMap(){
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructor variable for an empty map that holds a number of keys without growing
+     * @param expectedSize
+     */
+    public IntLongMap(int expectedSize){
+        int capacity = Tables.capacityFor(expectedSize, MIN_CAPACITY);
+        keys = new int[capacity];
+        values = new long[capacity];
+    }
+
+    /**
+     * size get function
+     * @return number of keys in the map
+     */
+    public int size(){return tableSize + (hasZeroKey ? 1 : 0);}
+
+    /**
+     * function to check for no keys
+     * @return true if the map is empty
+     */
+    public boolean isEmpty(){return size() == 0;}
+
+    /**
+     * function to check for a key
+     * @param key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key){return key == 0 ? hasZeroKey : find(key) >= 0;}
+
+    /**
+     * function to find the value of a key, for use as a total
+     * @param key
+     * @return value of the key, 0 if it has none
+     */
+    public long get(int key){return getOrDefault(key, 0);}
+
+    /**
+     * function to find the value of a key
+     * @param key
+     * @param defaultValue
+     * @return value of the key, or the default value if it has none
+     */
+    public long getOrDefault(int key, long defaultValue){
+        if(key == 0){
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * function to store a value for a key, replacing any previous value
+     * @param key
+     * @param value
+     * @return previous value, 0 if the key had none
+     */
+    public long put(int key, long value){
+        if(key == 0){
+            long previous = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = find(key);
+        if(slot >= 0){
+            long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(key, value);
+        return 0;
+    }
+
+    /**
+     * function to add to the value of a key, for use as a total
+     * A key whose value reaches 0 is removed, so the map only holds non-zero totals
+     * @param key
+     * @param delta
+     * @return new value of the key
+     * @throws ArithmeticException if the new value does not fit in a long; the map is not changed
+     */
+    public long add(int key, long delta){
+        if(key == 0){
+            long value = Math.addExact(zeroValue, delta);
+            hasZeroKey = value != 0;
+            zeroValue = value;
+            return value;
+        }
+        int slot = find(key);
+        if(slot < 0){
+            if(delta != 0){
+                insert(key, delta);
+            }
+            return delta;
+        }
+        long value = Math.addExact(values[slot], delta);
+        if(value == 0){
+            removeSlot(slot);
+        } else {
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * function to remove a key from the map
+     * @param key
+     * @return removed value, 0 if the key had none
+     */
+    public long remove(int key){
+        if(key == 0){
+            long previous = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return previous;
+        }
+        int slot = find(key);
+        if(slot < 0){
+            return 0;
+        }
+        long removed = values[slot];
+        removeSlot(slot);
+        return removed;
+    }
+
+    /**
+     * function to remove every key from the map
+     */
+    public void clear(){
+        keys = new int[MIN_CAPACITY];
+        values = new long[MIN_CAPACITY];
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * function to visit every entry, in no particular order
+     * The map must not be changed while it is visited
+     * @param action
+     */
+    public void forEach(EntryConsumer action){
+        if(hasZeroKey){
+            action.accept(0, zeroValue);
+        }
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != 0){
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * function to copy the keys into an array
+     * @return every key, in no particular order
+     */
+    public int[] keys(){
+        int[] array = new int[size()];
+        int count = 0;
+        if(hasZeroKey){
+            array[count++] = 0;
+        }
+        for(int key : keys){
+            if(key != 0){
+                array[count++] = key;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * function to find the slot of a key other than 0
+     * @param key
+     * @return slot of the key, or -1 if it is not in the table
+     */
+    private int find(int key){
+        int mask = keys.length - 1;
+        for(int slot = Tables.hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask){
+            if(keys[slot] == key){
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * function to add a key other than 0 that is not in the table
+     * @param key
+     * @param value
+     */
+    private void insert(int key, long value){
+        if(Tables.mustGrow(tableSize + 1, keys.length)){
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(keys[slot] != 0){
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        tableSize++;
+    }
+
+    /**
+     * function to empty a slot
+     * Shifts later entries of the probe run back so lookups never stop early
+     * @param slot
+     */
+    private void removeSlot(int slot){
+        int mask = keys.length - 1;
+        int gap = slot;
+        for(int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask){
+            if(Tables.canFill(gap, next, Tables.hash(keys[next]) & mask, mask)){
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        tableSize--;
+    }
+
+    /**
+     * function to rebuild the table at a new size
+     * @param capacity
+     */
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new int[capacity];
+        values = new long[capacity];
+        int mask = capacity - 1;
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != 0){
+                int slot = Tables.hash(oldKeys[i]) & mask;
+                while(keys[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
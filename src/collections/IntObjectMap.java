@@ -0,0 +1,195 @@
+package collections;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Maps an int key, such as a part or product id, to an object without boxing the key
+ * Uses open addressing with linear probing over parallel arrays, so an entry costs one int and one reference
+ * Removing shifts later entries back instead of leaving tombstones, so lookups stay short after many deletions
+ * Null values cannot be stored
+ * @author Andre Simmons
+ */
+public class IntObjectMap<V> {
+
+    /**
+     * Smallest table size, must be a power of two
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Key stored in each slot
+     */
+    private int[] keys;
+
+    /**
+     * Value stored in each slot, null if the slot is empty
+     */
+    private Object[] values;
+
+    /**
+     * Number of keys in the map
+     */
+    private int size;
+
+    /**
+     * Constructor variable for an empty map
+     */
+    public IntObjectMap(){
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructor variable for an empty map that holds a number of keys without growing
+     * @param expectedSize
+     */
+    public IntObjectMap(int expectedSize){
+        int capacity = Tables.capacityFor(expectedSize, MIN_CAPACITY);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * size get function
+     * @return number of keys in the map
+     */
+    public int size(){return size;}
+
+    /**
+     * function to check for no keys
+     * @return true if the map is empty
+     */
+    public boolean isEmpty(){return size == 0;}
+
+    /**
+     * function to find the value stored for a key
+     * @param key
+     * @return found value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key){
+        int mask = keys.length - 1;
+        for(int slot = Tables.hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask){
+            if(keys[slot] == key){
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * function to check for a key
+     * @param key
+     * @return true if a value is stored for the key
+     */
+    public boolean containsKey(int key){return get(key) != null;}
+
+    /**
+     * function to store a value for a key, replacing any previous value
+     * @param key
+     * @param value
+     * @return previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value){
+        if(value == null){
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(values[slot] != null){
+            if(keys[slot] == key){
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if(Tables.mustGrow(size + 1, keys.length)){
+            resize(keys.length * 2);
+            mask = keys.length - 1;
+            slot = Tables.hash(key) & mask;
+            while(values[slot] != null){
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * function to remove a key from the map
+     * Shifts later entries of the probe run back so lookups never stop early
+     * @param key
+     * @return removed value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key){
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(values[slot] != null && keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        if(values[slot] == null){
+            return null;
+        }
+        V removed = (V) values[slot];
+        int gap = slot;
+        for(int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask){
+            if(Tables.canFill(gap, next, Tables.hash(keys[next]) & mask, mask)){
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * function to remove every key from the map
+     */
+    public void clear(){
+        keys = new int[MIN_CAPACITY];
+        values = new Object[MIN_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * function to visit every entry, in no particular order
+     * The map must not be changed while it is visited
+     * @param action called with each value and its key
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super V> action){
+        for(int slot = 0; slot < values.length; slot++){
+            if(values[slot] != null){
+                action.accept((V) values[slot], keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * function to rebuild the table at a new size
+     * @param capacity
+     */
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldValues[i] != null){
+                int slot = Tables.hash(oldKeys[i]) & mask;
+                while(values[slot] != null){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
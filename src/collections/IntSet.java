@@ -0,0 +1,199 @@
+package collections;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Set of int keys, such as visited product ids, without boxing
+ * Uses open addressing with linear probing over one int array. Key 0 marks an empty slot,
+ * so whether the set holds 0 is kept in its own field
+ * Removing shifts later keys back instead of leaving tombstones, so lookups stay short after many deletions
+ * @author Andre Simmons
+ */
+public class IntSet {
+
+    /**
+     * Smallest table size, must be a power of two
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Key stored in each slot, 0 if the slot is empty
+     */
+    private int[] keys;
+
+    /**
+     * Number of keys in the table, not counting 0
+     */
+    private int tableSize;
+
+    /**
+     * True if the set holds 0
+     */
+    private boolean hasZero;
+
+    /**
+     * Constructor variable for an empty set
+     */
+    public IntSet(){
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructor variable for an empty set that holds a number of keys without growing
+     * @param expectedSize
+     */
+    public IntSet(int expectedSize){
+        keys = new int[Tables.capacityFor(expectedSize, MIN_CAPACITY)];
+    }
+
+    /**
+     * size get function
+     * @return number of keys in the set
+     */
+    public int size(){return tableSize + (hasZero ? 1 : 0);}
+
+    /**
+     * function to check for no keys
+     * @return true if the set is empty
+     */
+    public boolean isEmpty(){return size() == 0;}
+
+    /**
+     * function to check for a key
+     * @param key
+     * @return true if the set holds the key
+     */
+    public boolean contains(int key){
+        if(key == 0){
+            return hasZero;
+        }
+        int mask = keys.length - 1;
+        for(int slot = Tables.hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask){
+            if(keys[slot] == key){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * function to add a key
+     * @param key
+     * @return true if the key was not in the set before
+     */
+    public boolean add(int key){
+        if(key == 0){
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        if(Tables.mustGrow(tableSize + 1, keys.length)){
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(keys[slot] != 0){
+            if(keys[slot] == key){
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        tableSize++;
+        return true;
+    }
+
+    /**
+     * function to remove a key
+     * Shifts later keys of the probe run back so lookups never stop early
+     * @param key
+     * @return true if the key was in the set
+     */
+    public boolean remove(int key){
+        if(key == 0){
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int mask = keys.length - 1;
+        int slot = Tables.hash(key) & mask;
+        while(keys[slot] != 0 && keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        if(keys[slot] == 0){
+            return false;
+        }
+        int gap = slot;
+        for(int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask){
+            if(Tables.canFill(gap, next, Tables.hash(keys[next]) & mask, mask)){
+                keys[gap] = keys[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        tableSize--;
+        return true;
+    }
+
+    /**
+     * function to remove every key
+     */
+    public void clear(){
+        keys = new int[MIN_CAPACITY];
+        tableSize = 0;
+        hasZero = false;
+    }
+
+    /**
+     * function to visit every key, in no particular order
+     * The set must not be changed while it is visited
+     * @param action
+     */
+    public void forEach(IntConsumer action){
+        if(hasZero){
+            action.accept(0);
+        }
+        for(int key : keys){
+            if(key != 0){
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * function to copy the keys into an array
+     * @return every key, in no particular order
+     */
+    public int[] toArray(){
+        int[] array = new int[size()];
+        int count = 0;
+        if(hasZero){
+            array[count++] = 0;
+        }
+        for(int key : keys){
+            if(key != 0){
+                array[count++] = key;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * function to rebuild the table at a new size
+     * @param capacity
+     */
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        keys = new int[capacity];
+        int mask = capacity - 1;
+        for(int key : oldKeys){
+            if(key != 0){
+                int slot = Tables.hash(key) & mask;
+                while(keys[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
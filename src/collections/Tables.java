@@ -0,0 +1,56 @@
+package collections;
+
+/**
+ * Hashing and sizing rules shared by the open addressing tables keyed by int, in this package and out of it
+ * Tables are a power of two in size and are kept at most three quarters full
+ * @author Andre Simmons
+ */
+public final class Tables {
+
+    private Tables(){}
+
+    /**
+     * function to spread sequential ids across the table
+     * @param key
+     * @return mixed hash
+     */
+    public static int hash(int key){
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * function to check whether a table must grow before holding more keys
+     * @param size number of keys the table would hold
+     * @param capacity number of slots
+     * @return true if the table would be more than three quarters full
+     */
+    public static boolean mustGrow(int size, int capacity){return size * 4L > capacity * 3L;}
+
+    /**
+     * function to work out the number of slots for a number of keys
+     * @param expectedSize
+     * @param minCapacity
+     * @return power of two number of slots
+     */
+    public static int capacityFor(int expectedSize, int minCapacity){
+        int capacity = minCapacity;
+        while(mustGrow(expectedSize, capacity)){
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * function to check whether the entry in a slot can move back into an emptied slot
+     * The entry can move if the gap lies between its home slot and its current slot along the probe run
+     * @param gap emptied slot
+     * @param slot slot of the entry
+     * @param home slot the entry's key hashes to
+     * @param mask
+     * @return true if the entry can fill the gap
+     */
+    public static boolean canFill(int gap, int slot, int home, int mask){
+        return ((slot - home) & mask) >= ((slot - gap) & mask);
+    }
+}
@@ -2,27 +2,18 @@ package controller;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
-import model.InHouse;
-import model.Inventory;
-import model.Outsourced;
+import model.InventoryService;
+import model.ValidationException;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.Optional;
-import java.util.ResourceBundle;
 
 /**
  * Controls the Add Part UI
  * @author Andre Simmons
  */
-public class AddPartController implements Initializable {
+public class AddPartController implements ResettableController {
 
     /**
      * Text field for part id
@@ -98,46 +89,32 @@ public class AddPartController implements Initializable {
      */
     public void onClickSave(ActionEvent actionEvent) {
         try {
-            int id = 0;
             String name = partnametextfield.getText();
             Double price = Double.parseDouble(partpricetextfield.getText());
             int stock = Integer.parseInt(partinventorytextfield.getText());
             int min = Integer.parseInt(partmintextfield.getText());
             int max = Integer.parseInt(partmaxtextfield.getText());
-            int machineId;
-            String companyName;
-            boolean partAddSuccessful = false;
 
-            if (name.isEmpty()) {
-                displayAlert(5);
+            if (inhouseradio.isSelected()) {
+                InventoryService.addInHousePart(name, price, stock, min, max, idornametextfield.getText());
             } else {
-                if (minValidationCheck(min, max) && inventoryValidationCheck(min, max, stock)) {
-
-                    if (inhouseradio.isSelected()) {
-                        try {
-                            machineId = Integer.parseInt(idornametextfield.getText());
-                            InHouse newInHousePart = new InHouse(id, name, price, stock, min, max, machineId);
-                            newInHousePart.setId(Inventory.getNewPartId());
-                            Inventory.addPart(newInHousePart);
-                            partAddSuccessful = true;
-                        } catch (Exception e) {
-                            displayAlert(2);
-                        }
-                    }
-
-                    if (outsourcedradio.isSelected()) {
-                        companyName = idornametextfield.getText();
-                        Outsourced newOutsourcedPart = new Outsourced(id, name, price, stock, min, max,
-                                companyName);
-                        newOutsourcedPart.setId(Inventory.getNewPartId());
-                        Inventory.addPart(newOutsourcedPart);
-                        partAddSuccessful = true;
-                    }
-
-                    if (partAddSuccessful) {
-                        mainScreen(actionEvent);
-                    }
-                }
+                InventoryService.addOutsourcedPart(name, price, stock, min, max, idornametextfield.getText());
+            }
+            mainScreen(actionEvent);
+        } catch (ValidationException e) {
+            switch (e.getReason()) {
+                case NAME_EMPTY:
+                    displayAlert(5);
+                    break;
+                case MIN_INVALID:
+                    displayAlert(3);
+                    break;
+                case INVENTORY_INVALID:
+                    displayAlert(4);
+                    break;
+                default:
+                    displayAlert(2);
+                    break;
             }
         } catch(Exception e) {
             displayAlert(1);
@@ -221,62 +198,28 @@ public class AddPartController implements Initializable {
         radioLabelSwitch.setText("Company Name");
     }
 
-    /**
-     * Function to validate inventory value
-     * Value must be greater than/equal to the min and less than/equal to the max
-     * Displays an error message if value is invalid
-     * @param min
-     * @param max
-     * @param stock
-     * @return
-     */
-    private boolean inventoryValidationCheck(int min, int max, int stock) {
-        boolean validInv = true;
-        if (stock < min || stock > max) {
-            validInv = false;
-            displayAlert(4);
-        }
-        return validInv;
-    }
-
-    /**
-     * Function to validate minimum value
-     * Value must be greater than/equal to the 0 and less than to the max
-     * Displays an error message if value is invalid
-     * @param min
-     * @param max
-     * @return
-     */
-    private boolean minValidationCheck(int min, int max) {
-        boolean validMin = true;
-        if (min <= 0 || min >= max) {
-            validMin = false;
-            displayAlert(3);
-        }
-        return validMin;
-    }
-
     /**
      * Function to return to the Main Screen
      * @param actionEvent
      * @throws IOException
      */
     private void mainScreen(ActionEvent actionEvent) throws IOException {
-
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        Navigator.show(actionEvent, Navigator.View.MAIN_SCREEN);
     }
 
     /**
-     * This initializes the controller and sets In-House radio button to be selected on launch
-     * @param url
-     * @param resourceBundle
+     * This empties the form and sets In-House radio button to be selected each time the screen is shown
      */
     @Override
-    public void initialize(URL url, ResourceBundle resourceBundle) {
+    public void reset() {
+        partidtextfield.clear();
+        partnametextfield.clear();
+        partinventorytextfield.clear();
+        partpricetextfield.clear();
+        partmaxtextfield.clear();
+        partmintextfield.clear();
+        idornametextfield.clear();
         inhouseradio.setSelected(true);
+        radioLabelSwitch.setText("Machine ID");
     }
 }
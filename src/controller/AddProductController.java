@@ -4,18 +4,15 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyEvent;
-import javafx.stage.Stage;
 import model.Inventory;
+import model.InventoryService;
 import model.Part;
+import model.PartQuantities;
 import model.Product;
+import model.ValidationException;
 
 import java.io.IOException;
 import java.net.URL;
@@ -26,7 +23,7 @@ import java.util.ResourceBundle;
  *Controls the Add Product Scene
  * @author Andre Simmons
  */
-public class AddProductController implements Initializable {
+public class AddProductController implements Initializable, ResettableController {
 
     /**
      * Table view for associated parts
@@ -58,6 +55,12 @@ public class AddProductController implements Initializable {
     @FXML
     private TableColumn<Part, Double> aPriceColumn;
 
+    /**
+     * Column for associated part quantity
+     */
+    @FXML
+    private TableColumn<Part, Integer> aQuantityColumn;
+
     /**
      * Table view for all parts
      */
@@ -135,6 +138,11 @@ public class AddProductController implements Initializable {
      */
     private ObservableList<Part> aParts = FXCollections.observableArrayList();
 
+    /**
+     * Quantity of each associated part
+     */
+    private PartQuantities aQuantities = new PartQuantities();
+
 
     /**
      * Function to display alert messages to the user
@@ -185,6 +193,7 @@ public class AddProductController implements Initializable {
     /**
      * Controls the add button
      * Adds the selected part from the all parts table to the associated parts table
+     * Adding a part that is already associated adds one to its quantity
      * Displays an alert message if no part is selected
      * @param actionEvent
      */
@@ -194,14 +203,17 @@ public class AddProductController implements Initializable {
             displayAlert(5);
         }
         else{
-            aParts.add(selectedPart);
+            if(aQuantities.add(selectedPart.getId(), 1)){
+                aParts.add(selectedPart);
+            }
             aTableView.setItems(aParts);
+            aTableView.refresh();
         }
     }
 
     /**
      * Controls the remove button
-     * Removes part from associated parts table
+     * Removes one of the part from the associated parts table
      * Displays a confirmation message before removing the part
      * @param actionEvent
      */
@@ -218,8 +230,12 @@ public class AddProductController implements Initializable {
             Optional<ButtonType> result = alert.showAndWait();
 
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                aParts.remove(selectedPart);
+                aQuantities.remove(selectedPart.getId(), 1);
+                if(aQuantities.count(selectedPart.getId()) == 0){
+                    aParts.remove(selectedPart);
+                }
                 aTableView.setItems(aParts);
+                aTableView.refresh();
             }
         }
     }
@@ -232,27 +248,16 @@ public class AddProductController implements Initializable {
      */
     public void onClickSave(ActionEvent actionEvent) {
         try {
-            int id = 0;
             String name = productNameTextField.getText();
             Double price = Double.parseDouble(productPriceTexField.getText());
             int stock = Integer.parseInt(productInventoryTextField.getText());
             int min = Integer.parseInt(productMinTextField.getText());
             int max = Integer.parseInt(productMaxTextField.getText());
 
-            if (name.isEmpty()) {
-                displayAlert(6);
-            }
-            else {
-                if (minValidationCheck(min, max) && inventoryValidationCheck(min, max, stock)) {
-                    Product newProduct = new Product(id, name, price, stock, min, max);
-                    for (Part part : aParts) {
-                        newProduct.addAssociatedPart(part);
-                    }
-                    newProduct.setId(Inventory.getNewProductId());
-                    Inventory.addProduct(newProduct);
-                    mainScreen(actionEvent);
-                }
-            }
+            InventoryService.addProduct(name, price, stock, min, max, aQuantities);
+            mainScreen(actionEvent);
+        } catch (ValidationException e) {
+            displayValidationAlert(e);
         } catch (Exception e){
             displayAlert(1);
         }
@@ -278,19 +283,16 @@ public class AddProductController implements Initializable {
     /**
      * Controls search button
      * Searches for a part by id or name
+     * Shows every part again if the search field is blank
      * @param actionEvent
      */
     public void searchAction(ActionEvent actionEvent) {
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
         String searchString = partSearchTextField.getText();
-
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
+        if (searchString.isBlank()) {
+            tableView.setItems(Inventory.getAllParts());
+            return;
         }
+        ObservableList<Part> partsFound = InventoryService.searchParts(searchString);
 
         tableView.setItems(partsFound);
 
@@ -305,42 +307,28 @@ public class AddProductController implements Initializable {
      * @throws IOException
      */
     private void mainScreen(ActionEvent event) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
-    }
-
-    /**
-     * Funcion that checks if the minimum inventory value is valid
-     * @param min
-     * @param max
-     * @return
-     */
-    private boolean minValidationCheck(int min, int max) {
-        boolean validMin = true;
-        if (min <= 0 || min >= max) {
-            validMin = false;
-            displayAlert(3);
-        }
-        return validMin;
+        Navigator.show(event, Navigator.View.MAIN_SCREEN);
     }
 
     /**
-     * Function that checks if inventory value is valid
-     * @param min
-     * @param max
-     * @param stock
-     * @return
+     * Function that displays the alert message for a failed inventory rule
+     * @param e
      */
-    private boolean inventoryValidationCheck(int min, int max, int stock) {
-        boolean validInv = true;
-        if (stock < min || stock > max) {
-            validInv = false;
-            displayAlert(4);
+    private void displayValidationAlert(ValidationException e) {
+        switch (e.getReason()) {
+            case NAME_EMPTY:
+                displayAlert(6);
+                break;
+            case MIN_INVALID:
+                displayAlert(3);
+                break;
+            case INVENTORY_INVALID:
+                displayAlert(4);
+                break;
+            default:
+                displayAlert(1);
+                break;
         }
-        return validInv;
     }
 
     /**
@@ -350,15 +338,38 @@ public class AddProductController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        partIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        invLevelColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        priceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partIdColumn.setCellValueFactory(CellValues.of(Part::getId));
+        partNameColumn.setCellValueFactory(CellValues.of(Part::getName));
+        invLevelColumn.setCellValueFactory(CellValues.of(Part::getStock));
+        priceColumn.setCellValueFactory(CellValues.of(Part::getPrice));
         tableView.setItems(Inventory.getAllParts());
 
-        aPartIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        aPartNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        aInvLevelColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        aPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        aPartIdColumn.setCellValueFactory(CellValues.of(Part::getId));
+        aPartNameColumn.setCellValueFactory(CellValues.of(Part::getName));
+        aInvLevelColumn.setCellValueFactory(CellValues.of(Part::getStock));
+        aPriceColumn.setCellValueFactory(CellValues.of(Part::getPrice));
+        aQuantityColumn.setCellValueFactory(CellValues.of(part -> aQuantities.count(part.getId())));
+
+        aTableView.setItems(aParts);
+
+        new LiveSearch<>(partSearchTextField, tableView, Inventory.getAllParts(), Inventory::searchParts);
+    }
+
+    /**
+     * Empties the form and the associated parts each time the screen is shown
+     */
+    @Override
+    public void reset() {
+        productIdTextField.clear();
+        productNameTextField.clear();
+        productInventoryTextField.clear();
+        productPriceTexField.clear();
+        productMaxTextField.clear();
+        productMinTextField.clear();
+        partSearchTextField.clear();
+        tableView.setItems(Inventory.getAllParts());
+        aParts.clear();
+        aQuantities.clear();
+        aTableView.refresh();
     }
 }
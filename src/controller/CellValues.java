@@ -0,0 +1,25 @@
+package controller;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.function.Function;
+
+/**
+ * Typed table cell value factories
+ * Calls the getter directly instead of looking it up by name with reflection like PropertyValueFactory
+ * @author Andre Simmons
+ */
+public class CellValues {
+
+    /**
+     * function to create a cell value factory from a getter
+     * @param getter
+     * @return cell value factory that reads the row with the getter
+     */
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> of(Function<S, T> getter){
+        return cellData -> new ReadOnlyObjectWrapper<>(getter.apply(cellData.getValue()));
+    }
+}
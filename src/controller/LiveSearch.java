@@ -0,0 +1,105 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs a table search as the user types in a search text field
+ * Waits for a short pause in typing, searches on a background thread and cancels searches made stale by a newer keystroke
+ * @author Andre Simmons
+ */
+public class LiveSearch<T> {
+
+    /**
+     * Pause in typing before a search starts, in milliseconds
+     */
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    /**
+     * Single background thread shared by every search field
+     */
+    private static final ScheduledThreadPoolExecutor searchExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "live-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        searchExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Table that shows the search results
+     */
+    private final TableView<T> tableView;
+
+    /**
+     * Live inventory list shown when the search text is blank
+     */
+    private final ObservableList<T> allItems;
+
+    /**
+     * Function that runs the search
+     */
+    private final Function<String, ObservableList<T>> searchFunction;
+
+    /**
+     * Search waiting to run or running
+     */
+    private Future<?> pendingSearch;
+
+    /**
+     * Number of the latest keystroke, used to drop results of older searches
+     */
+    private volatile long latestQuery;
+
+    /**
+     * Constructor variable for live search
+     * Starts listening to the search text field
+     * @param searchTextField
+     * @param tableView
+     * @param allItems
+     * @param searchFunction
+     */
+    public LiveSearch(TextField searchTextField, TableView<T> tableView, ObservableList<T> allItems,
+                      Function<String, ObservableList<T>> searchFunction){
+        this.tableView = tableView;
+        this.allItems = allItems;
+        this.searchFunction = searchFunction;
+        searchTextField.textProperty().addListener((observable, oldText, newText) -> schedule(newText));
+    }
+
+    /**
+     * function to schedule a search for the newest text and cancel the previous one
+     * Blank text shows the live inventory list right away, so later changes keep showing in the table
+     * @param searchString
+     */
+    private void schedule(String searchString){
+        long query = ++latestQuery;
+        if(pendingSearch != null){
+            pendingSearch.cancel(true);
+        }
+        if(searchString == null || searchString.isBlank()){
+            pendingSearch = null;
+            tableView.setItems(allItems);
+            return;
+        }
+        pendingSearch = searchExecutor.schedule(() -> {
+            ObservableList<T> itemsFound = searchFunction.apply(searchString);
+            if(query == latestQuery && !Thread.currentThread().isInterrupted()){
+                Platform.runLater(() -> {
+                    if(query == latestQuery){
+                        tableView.setItems(itemsFound);
+                    }
+                });
+            }
+        }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,31 +1,43 @@
 package controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
+import javafx.stage.FileChooser;
+import model.CsvImporter;
 import model.Inventory;
+import model.InventoryIngest;
+import model.InventoryService;
+import model.InventoryValuation;
 import model.Part;
 import model.Product;
+import model.ValidationException;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.function.Function;
 
 /**
  * Controls the Main Screen
  * @author Andre Simmons
  */
-public class MainScreenController implements Initializable {
+public class MainScreenController implements Initializable, ResettableController {
+    /**
+     * Most companies and machines listed in the parts value breakdown
+     */
+    private static final int BREAKDOWN_ROWS = 10;
+
     /**
      * The user selected part that needs to be modified
      */
@@ -106,6 +118,138 @@ public class MainScreenController implements Initializable {
     @FXML
     private TableColumn<Product, Double> productPriceColumn;
 
+    /**
+     * Column for the number of units of a product that can be built from stock
+     */
+    @FXML
+    private TableColumn<Product, Integer> productBuildableColumn;
+
+    /**
+     * Column for the part or sub-assembly that limits how many units can be built
+     */
+    @FXML
+    private TableColumn<Product, String> productBottleneckColumn;
+
+    /**
+     * Button that shows the parts that need reorder
+     */
+    @FXML
+    private Button partReorderButton;
+
+    /**
+     * Button that shows the products that need reorder
+     */
+    @FXML
+    private Button productReorderButton;
+
+    /**
+     * Button that adds a part
+     */
+    @FXML
+    private Button partAddButton;
+
+    /**
+     * Button that modifies the selected part
+     */
+    @FXML
+    private Button partModifyButton;
+
+    /**
+     * Button that deletes the selected part
+     */
+    @FXML
+    private Button partDeleteButton;
+
+    /**
+     * Button that searches for parts
+     */
+    @FXML
+    private Button partSearchButton;
+
+    /**
+     * Button that adds a product
+     */
+    @FXML
+    private Button productAddButton;
+
+    /**
+     * Button that modifies the selected product
+     */
+    @FXML
+    private Button productModifyButton;
+
+    /**
+     * Button that deletes the selected product
+     */
+    @FXML
+    private Button productDeleteButton;
+
+    /**
+     * Button that searches for products
+     */
+    @FXML
+    private Button productSearchButton;
+
+    /**
+     * Button that undoes the newest change
+     */
+    @FXML
+    private Button undoButton;
+
+    /**
+     * Button that redoes the newest undone change
+     */
+    @FXML
+    private Button redoButton;
+
+    /**
+     * Button that imports parts and products from a CSV file
+     */
+    @FXML
+    private Button importButton;
+
+    /**
+     * Label for the value of the parts by type, company and machine
+     * Its tooltip lists the value of the parts of each company and machine
+     */
+    @FXML
+    private Label valuationLabel;
+
+    /**
+     * Parts from the latest snapshot shown while the inventory loads, null once the tables show the inventory
+     */
+    private static ObservableList<Part> previewParts;
+
+    /**
+     * Products from the latest snapshot shown while the inventory loads, null once the tables show the inventory
+     */
+    private static ObservableList<Product> previewProducts;
+
+    /**
+     * True once the tables show the inventory and follow its changes
+     */
+    private boolean inventoryShown;
+
+    /**
+     * Parts shown by the part reorder button, null when the reorder view was never opened
+     */
+    private ObservableList<Part> partReorderItems;
+
+    /**
+     * Products shown by the product reorder button, null when the reorder view was never opened
+     */
+    private ObservableList<Product> productReorderItems;
+
+    /**
+     * True while a refresh of the reorder buttons, reorder views and parts value is waiting to run
+     */
+    private boolean alertRefreshScheduled;
+
+    /**
+     * True while a refresh of the product table is waiting to run
+     */
+    private boolean productRefreshScheduled;
+
     /**
      * Function to get the user selected part
      * @return user selected part
@@ -122,6 +266,27 @@ public class MainScreenController implements Initializable {
         return selectedProductModify;
     }
 
+    /**
+     * Function to set the part and product the modify screens open with, as if the user had selected them
+     * @param part
+     * @param product
+     */
+    static void select(Part part, Product product){
+        selectedPartModify = part;
+        selectedProductModify = product;
+    }
+
+    /**
+     * Function to show rows from the latest snapshot until the inventory has loaded on another thread
+     * Must be called before the main screen is loaded; the rows are shown read-only until showInventory is called
+     * @param parts
+     * @param products
+     */
+    public static void showWhileLoading(ObservableList<Part> parts, ObservableList<Product> products){
+        previewParts = parts;
+        previewProducts = products;
+    }
+
     /**
      * Controls the exit button
      * Exits the application
@@ -131,6 +296,85 @@ public class MainScreenController implements Initializable {
         System.exit(0);
     }
 
+    /**
+     * Controls the import button
+     * Imports parts and products from a CSV file chosen by the user on a background thread
+     * Imported rows show in the tables as they are read, and the number imported and any errors are displayed at the end
+     * @param actionEvent
+     */
+    public void onClickImport(ActionEvent actionEvent) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Parts and Products");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        importButton.setDisable(true);
+        Thread importThread = new Thread(() -> {
+            try {
+                CsvImporter.Result result = new CsvImporter(new InventoryIngest(Platform::runLater)).importFile(file.toPath());
+                Platform.runLater(() -> displayImportResult(result));
+            } catch (IOException e) {
+                Platform.runLater(() -> displayImportFailure(e));
+            } finally {
+                Platform.runLater(() -> importButton.setDisable(false));
+            }
+        }, "csv-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    /**
+     * Function that displays the number of parts and products imported and the rows that were skipped
+     * @param result
+     */
+    private void displayImportResult(CsvImporter.Result result) {
+        Alert alert = new Alert(result.getErrorCount() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setTitle(result.getErrorCount() == 0 ? "Information" : "Warning");
+        alert.setHeaderText("Imported " + result.getPartsAdded() + " Parts and " + result.getProductsAdded() + " Products");
+        if (result.getErrorCount() > 0) {
+            alert.setContentText(result.getErrorCount() + " rows were skipped:\n" + String.join("\n", result.getErrors()));
+        }
+        alert.showAndWait();
+    }
+
+    /**
+     * Function that displays an error when the import file could not be read
+     * @param e
+     */
+    private void displayImportFailure(IOException e) {
+        Alert alertError = new Alert(Alert.AlertType.ERROR);
+        alertError.setTitle("Error");
+        alertError.setHeaderText("Import Failed");
+        alertError.setContentText(e.getMessage());
+        alertError.showAndWait();
+    }
+
+    /**
+     * Controls the undo button
+     * Undoes the newest add, modify or delete
+     * Displays a message if there is nothing to undo
+     * @param actionEvent
+     */
+    public void onClickUndo(ActionEvent actionEvent) {
+        if (!InventoryService.undo()) {
+            displayAlert(7);
+        }
+    }
+
+    /**
+     * Controls the redo button
+     * Redoes the newest undone change
+     * Displays a message if there is nothing to redo
+     * @param actionEvent
+     */
+    public void onClickRedo(ActionEvent actionEvent) {
+        if (!InventoryService.redo()) {
+            displayAlert(8);
+        }
+    }
+
     /**
      * Controls the product add button
      * Launches the Add Product Screen
@@ -138,11 +382,7 @@ public class MainScreenController implements Initializable {
      * @throws IOException
      */
     public void onClickProductAdd(ActionEvent actionEvent) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/AddProduct.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        Navigator.show(actionEvent, Navigator.View.ADD_PRODUCT);
     }
 
     /**
@@ -156,11 +396,7 @@ public class MainScreenController implements Initializable {
         if (selectedProductModify == null) {
             displayAlert(4);
         } else {
-            Parent parent = FXMLLoader.load(getClass().getResource("../view/ModifyProduct.fxml"));
-            Scene scene = new Scene(parent);
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            stage.setScene(scene);
-            stage.show();
+            Navigator.show(actionEvent, Navigator.View.MODIFY_PRODUCT);
         }
     }
 
@@ -183,11 +419,10 @@ public class MainScreenController implements Initializable {
             alert.setContentText("Are you sure that you want to delete the selected product?");
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                ObservableList<Part> assocParts = selectedProduct.getAllAssociatedParts();
-                if (assocParts.size() >= 1) {
-                    displayAlert(5);
-                } else {
-                    Inventory.deleteProduct(selectedProduct);
+                try {
+                    InventoryService.deleteProduct(selectedProduct);
+                } catch (ValidationException e) {
+                    displayAlert(e.getReason() == ValidationException.Reason.PRODUCT_IN_USE ? 6 : 5);
                 }
             }
         }
@@ -200,11 +435,7 @@ public class MainScreenController implements Initializable {
      * @throws IOException
      */
     public void onClickPartAdd(ActionEvent actionEvent) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/AddPart.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        Navigator.show(actionEvent, Navigator.View.ADD_PART);
     }
 
     /**
@@ -218,11 +449,7 @@ public class MainScreenController implements Initializable {
         if (selectedPartModify == null) {
             displayAlert(3);
         } else {
-            Parent parent = FXMLLoader.load(getClass().getResource("../view/ModifyPart.fxml"));
-            Scene scene = new Scene(parent);
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            stage.setScene(scene);
-            stage.show();
+            Navigator.show(actionEvent, Navigator.View.MODIFY_PART);
         }
     }
 
@@ -237,17 +464,167 @@ public class MainScreenController implements Initializable {
         if (selectedPart == null) {
             displayAlert(3);
         } else {
+            List<Product> productsUsingPart = InventoryService.getProductsUsingPart(selectedPart);
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Alert");
-            alert.setContentText("Are you sure that you want to delete the selected part?");
+            if (productsUsingPart.isEmpty()) {
+                alert.setContentText("Are you sure that you want to delete the selected part?");
+            } else {
+                StringBuilder productNames = new StringBuilder();
+                for (Product product : productsUsingPart) {
+                    productNames.append("\n").append(product.getId()).append(" ").append(product.getName());
+                }
+                alert.setContentText("The selected part is used by " + productsUsingPart.size() + " product(s):"
+                        + productNames + "\n\nDeleting it will also remove it from these products."
+                        + " Are you sure that you want to delete the selected part?");
+            }
             Optional<ButtonType> result = alert.showAndWait();
 
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                Inventory.deletePart(selectedPart);
+                InventoryService.deletePartAndAssociations(selectedPart);
             }
         }
     }
 
+    /**
+     * Controls the part reorder button
+     * Shows only the parts with stock at or below min, furthest below first, or all parts again if they are shown
+     * @param actionEvent
+     */
+    public void onClickPartReorder(ActionEvent actionEvent) {
+        if (partReorderItems != null && partTableView.getItems() == partReorderItems) {
+            partTableView.setItems(Inventory.getAllParts());
+        } else {
+            partReorderItems = FXCollections.observableArrayList(Inventory.getPartAlerts().getNeedsReorder());
+            partTableView.setItems(partReorderItems);
+        }
+    }
+
+    /**
+     * Controls the product reorder button
+     * Shows only the products with stock at or below min, furthest below first, or all products again if they are shown
+     * @param actionEvent
+     */
+    public void onClickProductReorder(ActionEvent actionEvent) {
+        if (productReorderItems != null && productTableView.getItems() == productReorderItems) {
+            productTableView.setItems(Inventory.getAllProducts());
+        } else {
+            productReorderItems = FXCollections.observableArrayList(Inventory.getProductAlerts().getNeedsReorder());
+            productTableView.setItems(productReorderItems);
+        }
+    }
+
+    /**
+     * Function that updates the part reorder count, and the reorder view if it is shown
+     */
+    private void refreshPartReorder() {
+        partReorderButton.setText("Needs Reorder (" + Inventory.getPartAlerts().getNeedsReorderCount() + ")");
+        if (partReorderItems != null && partTableView.getItems() == partReorderItems) {
+            partReorderItems.setAll(Inventory.getPartAlerts().getNeedsReorder());
+        }
+    }
+
+    /**
+     * Function that updates the product reorder count, and the reorder view if it is shown
+     */
+    private void refreshProductReorder() {
+        productReorderButton.setText("Needs Reorder (" + Inventory.getProductAlerts().getNeedsReorderCount() + ")");
+        if (productReorderItems != null && productTableView.getItems() == productReorderItems) {
+            productReorderItems.setAll(Inventory.getProductAlerts().getNeedsReorder());
+        }
+    }
+
+    /**
+     * Function that shows the value of the parts from the running totals kept by the inventory
+     */
+    private void refreshValuation() {
+        InventoryValuation valuation = Inventory.getValuation();
+        valuationLabel.setText(String.format("Parts Value: $%,.2f    In-House: $%,.2f    Outsourced: $%,.2f"
+                        + "    Companies: %d    Machines: %d",
+                valuation.getTotalValue(), valuation.getInHouseValue(), valuation.getOutsourcedValue(),
+                valuation.getCompanyCount(), valuation.getMachineCount()));
+    }
+
+    /**
+     * Function that lists the value of the parts of each company and machine, highest first
+     * Worked out when the tooltip is shown, since it takes time in proportion to the number of companies and machines
+     * @return breakdown text
+     */
+    private String valuationBreakdown() {
+        InventoryValuation valuation = Inventory.getValuation();
+        StringBuilder text = new StringBuilder("Outsourced by company:");
+        appendBreakdown(text, valuation.getCompanyValues(), companyName -> companyName == null ? "(no company)" : companyName);
+        text.append("\n\nIn-House by machine:");
+        appendBreakdown(text, valuation.getMachineValues(), machineId -> "Machine " + machineId);
+        return text.toString();
+    }
+
+    /**
+     * Function that adds the highest values to a breakdown, and how many more there are
+     * @param text
+     * @param values
+     * @param label
+     * @param <K>
+     */
+    private static <K> void appendBreakdown(StringBuilder text, Map<K, Double> values, Function<K, String> label) {
+        if (values.isEmpty()) {
+            text.append("\n    None");
+            return;
+        }
+        List<Map.Entry<K, Double>> entries = new ArrayList<>(values.entrySet());
+        entries.sort(Map.Entry.<K, Double>comparingByValue().reversed());
+        for (int i = 0; i < Math.min(BREAKDOWN_ROWS, entries.size()); i++) {
+            text.append(String.format("\n    %s: $%,.2f", label.apply(entries.get(i).getKey()), entries.get(i).getValue()));
+        }
+        if (entries.size() > BREAKDOWN_ROWS) {
+            text.append("\n    and ").append(entries.size() - BREAKDOWN_ROWS).append(" more");
+        }
+    }
+
+    /**
+     * Function that refreshes the reorder buttons, reorder views and parts value once the current change is finished
+     * Changes made through the inventory and through part and product setters both land here
+     */
+    private void scheduleAlertRefresh() {
+        if (!alertRefreshScheduled) {
+            alertRefreshScheduled = true;
+            Platform.runLater(() -> {
+                alertRefreshScheduled = false;
+                refreshPartReorder();
+                refreshProductReorder();
+                refreshValuation();
+            });
+        }
+    }
+
+    /**
+     * Function that names the part or sub-assembly that limits how many units of a product can be built
+     * @param product
+     * @return bottleneck name, or an empty string if the product has nothing to build from
+     */
+    private String bottleneckName(Product product) {
+        Part part = Inventory.getBuildCapacity().getBottleneckPart(product);
+        if (part != null) {
+            return part.getName();
+        }
+        Product subAssembly = Inventory.getBuildCapacity().getBottleneckSubAssembly(product);
+        return subAssembly != null ? subAssembly.getName() : "";
+    }
+
+    /**
+     * Function that refreshes the product table once the current change is finished
+     * Changes that update the build figures of many products, like deleting a part or undoing, refresh it only once
+     */
+    private void scheduleProductRefresh() {
+        if (!productRefreshScheduled) {
+            productRefreshScheduled = true;
+            Platform.runLater(() -> {
+                productRefreshScheduled = false;
+                productTableView.refresh();
+            });
+        }
+    }
+
     /**
      * Function that displays different alert messages to the user
      * @param alertType
@@ -284,26 +661,39 @@ public class MainScreenController implements Initializable {
                 alertError.setContentText("All parts must be removed from product before deletion.");
                 alertError.showAndWait();
                 break;
+            case 6:
+                alertError.setTitle("Error");
+                alertError.setHeaderText("Product Used By Other Products");
+                alertError.setContentText("Product is a sub-assembly of another product and cannot be deleted.");
+                alertError.showAndWait();
+                break;
+            case 7:
+                alert.setTitle("Information");
+                alert.setHeaderText("Nothing To Undo");
+                alert.showAndWait();
+                break;
+            case 8:
+                alert.setTitle("Information");
+                alert.setHeaderText("Nothing To Redo");
+                alert.showAndWait();
+                break;
         }
     }
 
     /**
      * Controls the part search button
      * Searches for part by id or name
+     * Shows every part again if the search field is blank
      * Displays an error message if the part is not found
      * @param actionEvent
      */
     public void partSearchAction(ActionEvent actionEvent) {
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
         String searchString = partSearchTextField.getText();
-
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
+        if (searchString.isBlank()) {
+            partTableView.setItems(Inventory.getAllParts());
+            return;
         }
+        ObservableList<Part> partsFound = InventoryService.searchParts(searchString);
         partTableView.setItems(partsFound);
         if (partsFound.size() == 0) {
             displayAlert(1);
@@ -313,44 +703,114 @@ public class MainScreenController implements Initializable {
     /**
      * Controls the product search button
      * Searches for product by id or name
+     * Shows every product again if the search field is blank
      * Displays an error message if the product is not found
      * @param actionEvent
      */
     public void productSearchAction(ActionEvent actionEvent) {
-        ObservableList<Product> allProducts = Inventory.getAllProducts();
-        ObservableList<Product> productsFound = FXCollections.observableArrayList();
         String searchString = productSearchTextField.getText();
-        for (Product product : allProducts) {
-            if (String.valueOf(product.getId()).contains(searchString) ||
-                    product.getName().contains(searchString)) {
-                productsFound.add(product);
-            }
+        if (searchString.isBlank()) {
+            productTableView.setItems(Inventory.getAllProducts());
+            return;
         }
+        ObservableList<Product> productsFound = InventoryService.searchProducts(searchString);
         productTableView.setItems(productsFound);
         if (productsFound.size() == 0) {
             displayAlert(2);
         }
     }
 
+    /**
+     * Shows every part and product again with empty search fields each time the main screen is shown
+     */
+    @Override
+    public void reset() {
+        partSearchTextField.clear();
+        productSearchTextField.clear();
+        if (!inventoryShown) {
+            return;
+        }
+        partTableView.setItems(Inventory.getAllParts());
+        productTableView.setItems(Inventory.getAllProducts());
+        partTableView.refresh();
+        productTableView.refresh();
+        refreshPartReorder();
+        refreshProductReorder();
+        refreshValuation();
+    }
+
+    /**
+     * Function that switches the tables from the snapshot rows to the inventory and turns editing on
+     * Called once the inventory has finished loading; does nothing if the tables already show the inventory
+     */
+    public void showInventory() {
+        if (inventoryShown) {
+            return;
+        }
+        inventoryShown = true;
+        previewParts = null;
+        previewProducts = null;
+        partTableView.setItems(Inventory.getAllParts());
+        productTableView.setItems(Inventory.getAllProducts());
+        productBuildableColumn.setCellValueFactory(CellValues.of(Inventory.getBuildCapacity()::getBuildable));
+        productBottleneckColumn.setCellValueFactory(CellValues.of(this::bottleneckName));
+
+        //Show reorder counts and parts value and keep them live
+        Inventory.getPartAlerts().addListener(this::scheduleAlertRefresh);
+        Inventory.getProductAlerts().addListener(this::scheduleAlertRefresh);
+        Inventory.getValuation().addListener(this::scheduleAlertRefresh);
+        Tooltip breakdown = new Tooltip();
+        breakdown.setOnShowing(event -> breakdown.setText(valuationBreakdown()));
+        valuationLabel.setTooltip(breakdown);
+        refreshPartReorder();
+        refreshProductReorder();
+        refreshValuation();
+
+        //Redraw the can build and bottleneck columns once after each change to the build figures
+        Inventory.getBuildCapacity().addListener(this::scheduleProductRefresh);
+
+        //Search as the user types
+        new LiveSearch<>(partSearchTextField, partTableView, Inventory.getAllParts(), Inventory::searchParts);
+        new LiveSearch<>(productSearchTextField, productTableView, Inventory.getAllProducts(), Inventory::searchProducts);
+        setEditingDisabled(false);
+    }
+
+    /**
+     * Function that turns the controls that search or change the inventory off or on
+     * @param disabled
+     */
+    private void setEditingDisabled(boolean disabled) {
+        for (Control control : Arrays.asList(partSearchTextField, partSearchButton, partReorderButton, partAddButton,
+                partModifyButton, partDeleteButton, productSearchTextField, productSearchButton, productReorderButton,
+                productAddButton, productModifyButton, productDeleteButton, importButton, undoButton, redoButton)) {
+            control.setDisable(disabled);
+        }
+    }
+
     /**
      * Initializes this controller and adds data to the tables
+     * While the inventory is still loading the tables show the snapshot rows with editing turned off
      * @param url
      * @param resourceBundle
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        partTableView.setItems(Inventory.getAllParts());
-        partIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partInvColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
-
-        //Populate products table view
-        productTableView.setItems(Inventory.getAllProducts());
-        productIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        productNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        productInvColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        productPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partIdColumn.setCellValueFactory(CellValues.of(Part::getId));
+        partNameColumn.setCellValueFactory(CellValues.of(Part::getName));
+        partInvColumn.setCellValueFactory(CellValues.of(Part::getStock));
+        partPriceColumn.setCellValueFactory(CellValues.of(Part::getPrice));
+        productIdColumn.setCellValueFactory(CellValues.of(Product::getId));
+        productNameColumn.setCellValueFactory(CellValues.of(Product::getName));
+        productInvColumn.setCellValueFactory(CellValues.of(Product::getStock));
+        productPriceColumn.setCellValueFactory(CellValues.of(Product::getPrice));
+        if (previewParts != null) {
+            partTableView.setItems(previewParts);
+            productTableView.setItems(previewProducts);
+            setEditingDisabled(true);
+            valuationLabel.setText("Loading inventory...");
+        } else {
+            showInventory();
+        }
         System.out.println("I am initialized!");
     }
 }
@@ -2,28 +2,21 @@ package controller;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 import model.InHouse;
-import model.Inventory;
+import model.InventoryService;
 import model.Outsourced;
 import model.Part;
+import model.ValidationException;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.Optional;
-import java.util.ResourceBundle;
 
 /**
  * Controls the Modify Part Screen
  * @author Andre Simmons
  */
-public class ModifyPartController implements Initializable {
+public class ModifyPartController implements ResettableController {
 
     /**
      * Label for machine id/company name
@@ -105,38 +98,34 @@ public class ModifyPartController implements Initializable {
      */
     public void onClickSave(ActionEvent actionEvent) {
         try {
-            int id = userSelectedPart.getId();
             String name = partNameTextField.getText();
             Double price = Double.parseDouble(partPriceTextField.getText());
             int stock = Integer.parseInt(partInventoryTextField.getText());
             int min = Integer.parseInt(partMinTextField.getText());
             int max = Integer.parseInt(partMaxTextField.getText());
-            int machineId;
-            String companyName;
-            boolean partAdded = false;
 
-            if (minValidationCheck(min, max) && inventoryValid(min, max, stock)) {
-                if (inHouseRadio.isSelected()) {
-                    try {
-                        machineId = Integer.parseInt(idOrNameTextField.getText());
-                        InHouse newInHousePart = new InHouse(id, name, price, stock, min, max, machineId);
-                        Inventory.addPart(newInHousePart);
-                        partAdded = true;
-                    } catch (Exception e) {
-                        displayAlert(2);
-                    }
-                }
-                if (outsourcedRadio.isSelected()) {
-                    companyName = idOrNameTextField.getText();
-                    Outsourced newOutsourcedPart = new Outsourced(id, name, price, stock, min, max,
-                            companyName);
-                    Inventory.addPart(newOutsourcedPart);
-                    partAdded = true;
-                }
-                if (partAdded) {
-                    Inventory.deletePart(userSelectedPart);
-                    mainScreen(actionEvent);
-                }
+            if (inHouseRadio.isSelected()) {
+                InventoryService.modifyInHousePart(userSelectedPart, name, price, stock, min, max,
+                        idOrNameTextField.getText());
+            } else {
+                InventoryService.modifyOutsourcedPart(userSelectedPart, name, price, stock, min, max,
+                        idOrNameTextField.getText());
+            }
+            mainScreen(actionEvent);
+        } catch (ValidationException e) {
+            switch (e.getReason()) {
+                case MIN_INVALID:
+                    displayAlert(3);
+                    break;
+                case INVENTORY_INVALID:
+                    displayAlert(4);
+                    break;
+                case MACHINE_ID_INVALID:
+                    displayAlert(2);
+                    break;
+                default:
+                    displayAlert(1);
+                    break;
             }
         } catch(Exception e) {
             displayAlert(1);
@@ -185,43 +174,7 @@ public class ModifyPartController implements Initializable {
      * @throws IOException
      */
     private void mainScreen(ActionEvent event) throws IOException {
-
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
-    }
-
-    /**
-     * Function that checks the validity of the minimum inventory value
-     * @param min
-     * @param max
-     * @return
-     */
-    private boolean minValidationCheck(int min, int max) {
-        boolean validMin = true;
-        if (min <= 0 || min >= max) {
-            validMin = false;
-            displayAlert(3);
-        }
-        return validMin;
-    }
-
-    /**
-     * Function that checks the validity of the inventory value
-     * @param min
-     * @param max
-     * @param stock
-     * @return
-     */
-    private boolean inventoryValid(int min, int max, int stock) {
-        boolean validInv = true;
-        if (stock < min || stock > max) {
-            validInv = false;
-            displayAlert(4);
-        }
-        return validInv;
+        Navigator.show(event, Navigator.View.MAIN_SCREEN);
     }
 
     /**
@@ -259,12 +212,10 @@ public class ModifyPartController implements Initializable {
     }
 
     /**
-     * Initializes this controller and displays all information about selected part in the appropriate text fields
-     * @param url
-     * @param resourceBundle
+     * Displays all information about selected part in the appropriate text fields each time the screen is shown
      */
     @Override
-    public void initialize(URL url, ResourceBundle resourceBundle) {
+    public void reset() {
         userSelectedPart = MainScreenController.getSelectedPart();
 
         if (userSelectedPart instanceof InHouse) {
@@ -4,17 +4,14 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
 import model.Inventory;
+import model.InventoryService;
 import model.Part;
+import model.PartQuantities;
 import model.Product;
+import model.ValidationException;
 
 import java.io.IOException;
 import java.net.URL;
@@ -25,7 +22,7 @@ import java.util.ResourceBundle;
  * Controls the Modify Product Screen
  * @author Andre Simmons
  */
-public class ModifyProductController implements Initializable {
+public class ModifyProductController implements Initializable, ResettableController {
 
     /**
      * Column for associated part price
@@ -51,6 +48,12 @@ public class ModifyProductController implements Initializable {
     @FXML
     private TableColumn<Part, Integer> aPartIDColumn;
 
+    /**
+     * Column for associated part quantity
+     */
+    @FXML
+    private TableColumn<Part, Integer> aPartQuantityColumn;
+
     /**
      * Table view for associated part
      */
@@ -139,10 +142,16 @@ public class ModifyProductController implements Initializable {
      */
     private ObservableList<Part> aParts = FXCollections.observableArrayList();
 
+    /**
+     * Quantity of each associated part
+     */
+    private PartQuantities aQuantities = new PartQuantities();
+
 
     /**
      * Controls the add button
      * Adds the selected part to the associated parts table
+     * Adding a part that is already associated adds one to its quantity
      * @param actionEvent
      */
     public void onClickAdd(ActionEvent actionEvent) {
@@ -151,14 +160,17 @@ public class ModifyProductController implements Initializable {
         if (selectedPart == null) {
             displayAlert(5);
         } else {
-            aParts.add(selectedPart);
+            if (aQuantities.add(selectedPart.getId(), 1)) {
+                aParts.add(selectedPart);
+            }
             aPartTableView.setItems(aParts);
+            aPartTableView.refresh();
         }
     }
 
     /**
      * Controls the remove associated parts button
-     * Removes part from the associated parts table
+     * Removes one of the part from the associated parts table
      * Displays an error message if no part was selected
      * Displays a confirmation message before removing the part
      * @param actionEvent
@@ -176,8 +188,12 @@ public class ModifyProductController implements Initializable {
             Optional<ButtonType> result = alert.showAndWait();
 
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                aParts.remove(selectedPart);
+                aQuantities.remove(selectedPart.getId(), 1);
+                if (aQuantities.count(selectedPart.getId()) == 0) {
+                    aParts.remove(selectedPart);
+                }
                 aPartTableView.setItems(aParts);
+                aPartTableView.refresh();
             }
         }
     }
@@ -190,25 +206,16 @@ public class ModifyProductController implements Initializable {
      */
     public void onClickSave(ActionEvent actionEvent) {
         try {
-            int id = userSelectedProduct.getId();
             String name = productNameTextField.getText();
             Double price = Double.parseDouble(productPriceTextField.getText());
             int stock = Integer.parseInt(productInvTextField.getText());
             int min = Integer.parseInt(productMinTextField.getText());
             int max = Integer.parseInt(productMaxTextField.getText());
-            if (name.isEmpty()) {
-                displayAlert(6);
-            } else {
-                if (minValidationCheck(min, max) && inventoryValidationCheck(min, max, stock)) {
-                    Product newProduct = new Product(id, name, price, stock, min, max);
-                    for (Part part : aParts) {
-                        newProduct.addAssociatedPart(part);
-                    }
-                    Inventory.addProduct(newProduct);
-                    Inventory.deleteProduct(userSelectedProduct);
-                    mainScreen(actionEvent);
-                }
-            }
+
+            InventoryService.modifyProduct(userSelectedProduct, name, price, stock, min, max, aQuantities);
+            mainScreen(actionEvent);
+        } catch (ValidationException e) {
+            displayValidationAlert(e);
         } catch (Exception e){
             displayAlert(1);
         }
@@ -234,18 +241,16 @@ public class ModifyProductController implements Initializable {
     /**
      * Controls the search button
      * Searches for a part by name or id
+     * Shows every part again if the search field is blank
      * @param actionEvent
      */
     public void searchAction(ActionEvent actionEvent) {
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
         String searchString = partSearchTextField.getText();
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
+        if (searchString.isBlank()) {
+            partTableView.setItems(Inventory.getAllParts());
+            return;
         }
+        ObservableList<Part> partsFound = InventoryService.searchParts(searchString);
         partTableView.setItems(partsFound);
         if (partsFound.size() == 0) {
             displayAlert(1);
@@ -258,43 +263,7 @@ public class ModifyProductController implements Initializable {
      * @throws IOException
      */
     private void mainScreen(ActionEvent event) throws IOException {
-
-        Parent parent = FXMLLoader.load(getClass().getResource("../view/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
-    }
-
-    /**
-     * Function that checks the validity of the minimum inventory value
-     * @param min
-     * @param max
-     * @return
-     */
-    private boolean minValidationCheck(int min, int max) {
-        boolean validMin = true;
-        if (min <= 0 || min >= max) {
-            validMin = false;
-            displayAlert(3);
-        }
-        return validMin;
-    }
-
-    /**
-     * Function that checks the validity of the inventory value
-     * @param min
-     * @param max
-     * @param stock
-     * @return
-     */
-    private boolean inventoryValidationCheck(int min, int max, int stock) {
-        boolean validInv = true;
-        if (stock < min || stock > max) {
-            validInv = false;
-            displayAlert(4);
-        }
-        return validInv;
+        Navigator.show(event, Navigator.View.MAIN_SCREEN);
     }
 
     /**
@@ -345,26 +314,58 @@ public class ModifyProductController implements Initializable {
     }
 
     /**
-     * Initializes this controller and adds data associated with selected part to appropriate text fields
+     * Function that displays the alert message for a failed inventory rule
+     * @param e
+     */
+    private void displayValidationAlert(ValidationException e) {
+        switch (e.getReason()) {
+            case NAME_EMPTY:
+                displayAlert(6);
+                break;
+            case MIN_INVALID:
+                displayAlert(3);
+                break;
+            case INVENTORY_INVALID:
+                displayAlert(4);
+                break;
+            default:
+                displayAlert(1);
+                break;
+        }
+    }
+
+    /**
+     * Initializes this controller and sets up the tables
      * @param url
      * @param resourceBundle
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        userSelectedProduct = MainScreenController.getSelectedProduct();
-        aParts = userSelectedProduct.getAllAssociatedParts();
-
-        partIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partInvColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partIdColumn.setCellValueFactory(CellValues.of(Part::getId));
+        partNameColumn.setCellValueFactory(CellValues.of(Part::getName));
+        partInvColumn.setCellValueFactory(CellValues.of(Part::getStock));
+        partPriceColumn.setCellValueFactory(CellValues.of(Part::getPrice));
         partTableView.setItems(Inventory.getAllParts());
 
-        aPartIDColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        aPartNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        aPartInvColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        aPartPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        aPartIDColumn.setCellValueFactory(CellValues.of(Part::getId));
+        aPartNameColumn.setCellValueFactory(CellValues.of(Part::getName));
+        aPartInvColumn.setCellValueFactory(CellValues.of(Part::getStock));
+        aPartPriceColumn.setCellValueFactory(CellValues.of(Part::getPrice));
+        aPartQuantityColumn.setCellValueFactory(CellValues.of(part -> aQuantities.count(part.getId())));
+        new LiveSearch<>(partSearchTextField, partTableView, Inventory.getAllParts(), Inventory::searchParts);
+    }
+
+    /**
+     * Adds data associated with the selected product to appropriate text fields each time the screen is shown
+     */
+    @Override
+    public void reset() {
+        userSelectedProduct = MainScreenController.getSelectedProduct();
+        aParts = userSelectedProduct.getAllAssociatedParts();
+        aQuantities = new PartQuantities(userSelectedProduct.getAssociatedParts());
         aPartTableView.setItems(aParts);
+        partSearchTextField.clear();
+        partTableView.setItems(Inventory.getAllParts());
 
         productIdTextField.setText(String.valueOf(userSelectedProduct.getId()));
         productNameTextField.setText(userSelectedProduct.getName());
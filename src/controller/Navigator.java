@@ -0,0 +1,155 @@
+package controller;
+
+import javafx.event.ActionEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import model.Inventory;
+import model.Part;
+import model.Product;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Moves between the screens of the app
+ * Each view is loaded from its FXML file once and kept with its controller. Showing a view resets its controller
+ * and swaps it in as the root of the stage's scene, so moving between screens does not parse XML,
+ * build nodes or create a new scene
+ * @author Andre Simmons
+ */
+public class Navigator {
+
+    /**
+     * The screens of the app and their FXML files
+     */
+    public enum View {
+        MAIN_SCREEN("MainScreen.fxml"),
+        ADD_PART("AddPart.fxml"),
+        MODIFY_PART("ModifyPart.fxml"),
+        ADD_PRODUCT("AddProduct.fxml"),
+        MODIFY_PRODUCT("ModifyProduct.fxml");
+
+        private final String fileName;
+
+        View(String fileName){
+            this.fileName = fileName;
+        }
+    }
+
+    /**
+     * Loaded root node of each view
+     */
+    private static final Map<View, Parent> roots = new EnumMap<>(View.class);
+
+    /**
+     * Controller of each loaded view
+     */
+    private static final Map<View, Object> controllers = new EnumMap<>(View.class);
+
+    /**
+     * function to load every view that is not loaded yet
+     * @throws IOException
+     */
+    public static void preload() throws IOException {
+        for(View view : View.values()){
+            load(view);
+        }
+    }
+
+    /**
+     * function to load one view if it is not loaded yet
+     * Safe to call from a background thread before the view is first shown
+     * Views are loaded outside the lock so different views can load at the same time
+     * @param view
+     * @return true if this call loaded the view, false if it was already loaded
+     * @throws IOException
+     */
+    public static boolean load(View view) throws IOException {
+        synchronized(Navigator.class){
+            if(roots.containsKey(view)){
+                return false;
+            }
+        }
+        FXMLLoader loader = new FXMLLoader(Navigator.class.getResource("/view/" + view.fileName));
+        Parent root = loader.load();
+        synchronized(Navigator.class){
+            if(roots.containsKey(view)){
+                return false;
+            }
+            controllers.put(view, loader.getController());
+            roots.put(view, root);
+            return true;
+        }
+    }
+
+    /**
+     * function to get the controller of a loaded view
+     * @param view
+     * @return controller of the view, or null if the view is not loaded yet
+     */
+    public static synchronized Object getController(View view){return controllers.get(view);}
+
+    /**
+     * function to open every screen once and return to the main screen, for warming up class loading
+     * The modify screens open with the first part and product in the inventory and are skipped if there are none
+     * @param stage
+     * @throws IOException
+     */
+    public static void visitAll(Stage stage) throws IOException {
+        Part part = Inventory.getAllParts().isEmpty() ? null : Inventory.getAllParts().get(0);
+        Product product = Inventory.getAllProducts().isEmpty() ? null : Inventory.getAllProducts().get(0);
+        MainScreenController.select(part, product);
+        show(stage, View.ADD_PART);
+        show(stage, View.ADD_PRODUCT);
+        if(part != null){
+            show(stage, View.MODIFY_PART);
+        }
+        if(product != null){
+            show(stage, View.MODIFY_PRODUCT);
+        }
+        show(stage, View.MAIN_SCREEN);
+        MainScreenController.select(null, null);
+    }
+
+    /**
+     * function to show a view in the window of the control that fired an event
+     * @param actionEvent
+     * @param view
+     * @throws IOException
+     */
+    public static void show(ActionEvent actionEvent, View view) throws IOException {
+        show((Stage) ((Node) actionEvent.getSource()).getScene().getWindow(), view);
+    }
+
+    /**
+     * function to show a view in a stage
+     * The stage's scene is created the first time and after that only its root is swapped
+     * @param stage
+     * @param view
+     * @throws IOException
+     */
+    public static void show(Stage stage, View view) throws IOException {
+        Parent root;
+        Object controller;
+        load(view);
+        synchronized(Navigator.class){
+            root = roots.get(view);
+            controller = controllers.get(view);
+        }
+        if(controller instanceof ResettableController){
+            ((ResettableController) controller).reset();
+        }
+        Scene scene = stage.getScene();
+        if(scene == null){
+            stage.setScene(new Scene(root));
+        } else if(scene.getRoot() != root){
+            scene.setRoot(root);
+            stage.sizeToScene();
+        }
+        stage.show();
+    }
+}
@@ -0,0 +1,14 @@
+package controller;
+
+/**
+ * Controller of a view that the navigator keeps loaded and shows again
+ * initialize sets up the view once; reset is called every time the view is shown
+ * @author Andre Simmons
+ */
+public interface ResettableController {
+
+    /**
+     * function to put the view back in its starting state before it is shown
+     */
+    void reset();
+}
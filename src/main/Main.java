@@ -1,14 +1,28 @@
 package main;
 
+import controller.MainScreenController;
+import controller.Navigator;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 import model.InHouse;
 import model.Inventory;
+import model.InventoryService;
+import model.InventoryStore;
+import model.MappedSnapshot;
 import model.Outsourced;
+import model.PagedList;
 import model.Product;
+import server.InventoryServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Andre Simmons
@@ -16,7 +30,7 @@ import model.Product;
  * This Inventory Management System is an application that helps to manage/modify
  * an inventory consisting of parts and products with associated parts
  *
- *FUTURE ENHANCEMENT: Being able to have control over which parts are duplicated in a product
+ *Products keep a quantity for each associated part, so a part used more than once is stored once
  *
  *
  */
@@ -24,23 +38,298 @@ import model.Product;
 public class Main extends Application{
 
     /**
-     * Creates FXML stage and loads the first scene
+     * Folder the inventory is saved in
+     */
+    private static final Path DATA_DIRECTORY = Paths.get("inventory-data");
+
+    /**
+     * Port used by the server mode when none is given
+     */
+    private static final int DEFAULT_SERVER_PORT = 8080;
+
+    /**
+     * Command line usage, printed when the arguments cannot be read
+     */
+    private static final String USAGE = "Usage: Main [--server [port]] [--profile-startup] [--parallel-preload] [--training-run]";
+
+    /**
+     * Views that bind to the inventory lists when they are loaded, so they wait for the data to finish loading
+     */
+    private static final Navigator.View[] INVENTORY_VIEWS = {
+            Navigator.View.MAIN_SCREEN, Navigator.View.ADD_PRODUCT, Navigator.View.MODIFY_PRODUCT};
+
+    /**
+     * Views that do not touch the inventory when they are loaded
+     */
+    private static final Navigator.View[] FORM_VIEWS = {Navigator.View.ADD_PART, Navigator.View.MODIFY_PART};
+
+    /**
+     * True to print how long each startup phase took once the first screen is shown
+     */
+    private static boolean profileStartup;
+
+    /**
+     * True to load the inventory and the views on background threads while JavaFX starts
+     */
+    private static boolean parallelPreload;
+
+    /**
+     * True to open every screen once after startup and then exit, for recording a class data sharing archive
+     */
+    private static boolean trainingRun;
+
+    /**
+     * Store the inventory is saved to, null if it could not be opened
+     */
+    private static InventoryStore store;
+
+    /**
+     * Inventory loading started by main in parallel preload mode or when there is a snapshot to show meanwhile
+     */
+    private static CompletableFuture<Void> dataLoaded;
+
+    /**
+     * Latest saved snapshot, shown on the main screen while the inventory loads; null if the inventory is loaded first
+     */
+    private static MappedSnapshot preview;
+
+    /**
+     * Runs on the launcher thread once JavaFX has started, before the stage is created
+     * If there is a snapshot to show, the main screen is given its rows, decoded a page at a time as they are shown
+     * Otherwise in parallel preload mode the form views are loaded on a background thread, and the views bound to the
+     * inventory are loaded here as soon as the inventory has finished loading
+     * @throws Exception
+     */
+    @Override
+    public void init() throws Exception{
+        StartupTimer.mark("javafx started");
+        if(preview != null){
+            MainScreenController.showWhileLoading(new PagedList<>(preview.partRows()),
+                    new PagedList<>(preview.productRows()));
+        } else if(parallelPreload){
+            CompletableFuture<Void> formsLoaded = CompletableFuture.runAsync(() -> loadViews(FORM_VIEWS));
+            dataLoaded.join();
+            loadViews(INVENTORY_VIEWS);
+            formsLoaded.join();
+        }
+    }
+
+    /**
+     * Loads every screen that is not loaded yet and shows the first one
+     * While the inventory is still loading only the main screen and the forms are loaded, and the rest follow
+     * once it has loaded
      * @param stage
      * @throws Exception
      */
     @Override
     public void start(Stage stage) throws Exception{
-        Parent root = FXMLLoader.load(getClass().getResource("/view/MainScreen.fxml"));
+        boolean showingPreview = preview != null;
+        if(showingPreview){
+            loadViews(FORM_VIEWS);
+            loadViews(Navigator.View.MAIN_SCREEN);
+            dataLoaded.whenComplete((loaded, error) -> Platform.runLater(() -> finishLoading(stage, error)));
+        } else {
+            loadViews(Navigator.View.values());
+            reportSaveFailures();
+        }
         stage.setTitle("First Screen");
-        stage.setScene(new Scene(root));
-        stage.show();
+        stage.setOnShown(event -> {
+            StartupTimer.mark("first screen shown");
+            if(profileStartup && !showingPreview){
+                StartupTimer.print(System.out);
+            }
+            if(trainingRun && !showingPreview){
+                Platform.runLater(() -> train(stage));
+            }
+        });
+        Navigator.show(stage, Navigator.View.MAIN_SCREEN);
     }
 
     /**
-     * This creates the sample data and launches the app
+     * This switches the main screen from the snapshot rows to the loaded inventory and loads the views bound to it
+     * Exits if the inventory could not be loaded, since the snapshot rows cannot be changed
+     * @param stage
+     * @param error
+     */
+    private static void finishLoading(Stage stage, Throwable error){
+        preview = null;
+        if(error != null){
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText("Inventory Could Not Be Loaded");
+            alert.setContentText(String.valueOf(error.getCause() != null ? error.getCause() : error));
+            alert.showAndWait();
+            Platform.exit();
+            return;
+        }
+        loadViews(INVENTORY_VIEWS);
+        ((MainScreenController) Navigator.getController(Navigator.View.MAIN_SCREEN)).showInventory();
+        reportSaveFailures();
+        StartupTimer.mark("inventory shown");
+        if(profileStartup){
+            StartupTimer.print(System.out);
+        }
+        if(trainingRun){
+            train(stage);
+        }
+    }
+
+    /**
+     * This shows an alert if the store stops saving changes
+     */
+    private static void reportSaveFailures(){
+        if(store != null){
+            store.setFailureHandler(error -> Platform.runLater(() -> showSaveFailure(error)));
+        }
+    }
+
+    /**
+     * This opens every screen and runs the common inventory operations once, then exits
+     * Used by scripts/cds-train.sh so the classes loaded here are written to the startup archive
+     * @param stage
+     */
+    private static void train(Stage stage){
+        try {
+            Navigator.visitAll(stage);
+            Inventory.searchParts("a");
+            Inventory.searchProducts("a");
+            for(Product product : Inventory.getAllProducts()){
+                Inventory.getBuildCapacity().getBuildable(product);
+                InventoryService.explodeProduct(product, 1);
+            }
+            StartupTimer.mark("training run finished");
+        } catch (IOException e) {
+            System.err.println("Training run failed: " + e.getMessage());
+        }
+        Platform.exit();
+    }
+
+    /**
+     * This loads the saved inventory, creates the sample data if there is none and launches the app
+     * If there is a saved snapshot the app opens showing its rows while the inventory loads on a background thread
+     * Run with --server [port] to serve the inventory over HTTP/JSON instead of opening the app
+     * Add --profile-startup to print how long each startup phase took
+     * Add --parallel-preload to load the inventory while JavaFX starts and load the screens on background threads
+     * Add --training-run to open every screen once and exit, as scripts/cds-train.sh does to record the startup archive
      * @param args
      */
     public static void main(String[] args){
+        List<String> options = Arrays.asList(args);
+        profileStartup = options.contains("--profile-startup");
+        if(profileStartup){
+            StartupTimer.start();
+        }
+        StartupTimer.mark("main");
+        parallelPreload = options.contains("--parallel-preload");
+        trainingRun = options.contains("--training-run");
+        if(args.length > 0 && args[0].equals("--server")){
+            int port = args.length > 1 && !args[1].startsWith("--") ? parsePort(args[1]) : DEFAULT_SERVER_PORT;
+            if(port < 0){
+                System.err.println("Not a port number: " + args[1]);
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            loadData();
+            startServer(port);
+            return;
+        }
+        preview = openPreview();
+        if(preview != null || parallelPreload){
+            dataLoaded = CompletableFuture.runAsync(Main::loadData);
+        } else {
+            loadData();
+        }
+        launch(args);
+    }
+
+    /**
+     * This reads a port number given on the command line
+     * @param text
+     * @return port from 0 to 65535, where 0 picks a free port, or -1 if the text is not one
+     */
+    private static int parsePort(String text){
+        try {
+            int port = Integer.parseInt(text);
+            return port >= 0 && port <= 65535 ? port : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * This maps the latest saved snapshot so its rows can be shown while the inventory loads
+     * @return mapped snapshot, or null if there is none or it cannot be read, in which case the store reports why
+     */
+    private static MappedSnapshot openPreview(){
+        try {
+            return InventoryStore.openLatestSnapshot(DATA_DIRECTORY);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This loads the saved inventory and creates the sample data if there is none
+     */
+    private static void loadData(){
+        try {
+            store = InventoryStore.open(DATA_DIRECTORY);
+        } catch (IOException e) {
+            System.err.println("Inventory could not be loaded, changes will not be saved: " + e.getMessage());
+        }
+        if(Inventory.getAllParts().isEmpty() && Inventory.getAllProducts().isEmpty()){
+            addSampleData();
+        }
+        StartupTimer.mark("inventory loaded");
+    }
+
+    /**
+     * This loads views that are not loaded yet, marking the time each one took
+     * @param views
+     */
+    private static void loadViews(Navigator.View... views){
+        for(Navigator.View view : views){
+            try {
+                if(Navigator.load(view)){
+                    StartupTimer.mark("loaded " + view);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * This tells the user that the inventory can no longer be saved
+     * @param error
+     */
+    private static void showSaveFailure(Throwable error){
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText("Changes Are No Longer Saved");
+        alert.setContentText("The inventory could not be written to disk: " + error
+                + "\nChanges made from now on will be lost when the app closes.");
+        alert.show();
+    }
+
+    /**
+     * This starts the headless HTTP/JSON server, which keeps running until the process is stopped
+     * @param port
+     */
+    private static void startServer(int port){
+        try {
+            InventoryServer server = new InventoryServer(port);
+            server.start();
+            System.out.println("Inventory server listening on port " + server.getPort());
+        } catch (IOException e) {
+            System.err.println("Inventory server could not be started: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This creates the sample data used when there is no saved inventory
+     */
+    private static void addSampleData(){
         int partId = Inventory.getNewPartId();
         InHouse keyboard = new InHouse(partId, "Keyboard", 30.00, 10, 1, 25, 101);
         partId = Inventory.getNewPartId();
@@ -65,7 +354,5 @@ public class Main extends Application{
         desktop.addAssociatedPart(powerCord);
         desktop.addAssociatedPart(pc);
         Inventory.addProduct(desktop);
-
-        launch(args);
     }
 }
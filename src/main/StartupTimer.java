@@ -0,0 +1,68 @@
+package main;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how long each phase of starting the app takes
+ * Does nothing until it is turned on, so a normal launch does not pay for reading the process start time
+ * Every mark is timed from the start of the process, so the first mark also shows how long the JVM took to reach main
+ * Marks can be made from any thread
+ * @author Andre Simmons
+ */
+public class StartupTimer {
+
+    /**
+     * Time the process started, in milliseconds since the epoch; 0 while the timer is off
+     */
+    private static long processStartMillis;
+
+    /**
+     * Recorded marks in the order they were made
+     */
+    private static final List<String> marks = new ArrayList<>();
+
+    /**
+     * Time of the latest mark, in milliseconds since the JVM started
+     */
+    private static long lastMillis;
+
+    /**
+     * function to turn the timer on, reading the process start time from the operating system
+     * Falls back to the current time if the start time is not available
+     */
+    public static synchronized void start(){
+        if(processStartMillis == 0){
+            processStartMillis = ProcessHandle.current().info().startInstant()
+                    .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * function to record that a phase has finished
+     * Does nothing while the timer is off
+     * @param phase
+     */
+    public static synchronized void mark(String phase){
+        if(processStartMillis == 0){
+            return;
+        }
+        long millis = System.currentTimeMillis() - processStartMillis;
+        marks.add(String.format("%7d ms  %+6d ms  %-28s %s", millis, millis - lastMillis, phase,
+                Thread.currentThread().getName()));
+        lastMillis = millis;
+    }
+
+    /**
+     * function to print every mark
+     * @param out
+     */
+    public static synchronized void print(PrintStream out){
+        out.println("Startup timings (since process start, since previous mark, phase, thread)");
+        for(String mark : marks){
+            out.println(mark);
+        }
+    }
+}
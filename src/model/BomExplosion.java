@@ -0,0 +1,198 @@
+package model;
+
+import collections.IntLongMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Works out the total parts needed to build a product through every level of its sub-assemblies
+ * The parts for one unit of each product are worked out once and kept, so a sub-assembly used in many places
+ * is only exploded once. Sub-assemblies that are not worked out yet are exploded in parallel with fork/join
+ *
+ * Results are kept for the life of the engine, so make a new engine after products change
+ * Products must not be changed while an explosion runs. Sub-assemblies missing from the inventory are skipped
+ * Products are never built from themselves, since loops are refused when sub-assemblies are added and dropped on load
+ * @author Andre Simmons
+ */
+public class BomExplosion {
+
+    /**
+     * Pool that runs the explosion tasks
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Explosion of one unit of each product, by product id
+     */
+    private final ConcurrentHashMap<Integer, ExplodeTask> explosions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor variable for an engine using the common fork/join pool
+     */
+    public BomExplosion(){
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor variable for an engine using the given pool
+     * @param pool
+     */
+    public BomExplosion(ForkJoinPool pool){
+        this.pool = pool;
+    }
+
+    /**
+     * Total part quantities, sorted by part id
+     */
+    public static class Requirements {
+        private final int[] partIds;
+        private final long[] quantities;
+
+        private Requirements(int[] partIds, long[] quantities){
+            this.partIds = partIds;
+            this.quantities = quantities;
+        }
+
+        /**
+         * size get function
+         * @return number of different parts
+         */
+        public int size(){return partIds.length;}
+
+        /**
+         * part id get function
+         * @param index
+         * @return part id at the index
+         */
+        public int partId(int index){return partIds[index];}
+
+        /**
+         * quantity get function
+         * @param index
+         * @return quantity at the index
+         */
+        public long quantity(int index){return quantities[index];}
+
+        /**
+         * function to find the quantity of one part
+         * @param partId
+         * @return quantity of the part, 0 if it is not needed
+         */
+        public long quantityOf(int partId){
+            int index = Arrays.binarySearch(partIds, partId);
+            return index < 0 ? 0 : quantities[index];
+        }
+
+        /**
+         * function to multiply every quantity
+         * @param units
+         * @return requirements for the given number of units
+         */
+        private Requirements times(long units){
+            if(units == 1){
+                return this;
+            }
+            long[] scaled = new long[quantities.length];
+            for(int i = 0; i < scaled.length; i++){
+                scaled[i] = Math.multiplyExact(quantities[i], units);
+            }
+            return new Requirements(partIds, scaled);
+        }
+    }
+
+    /**
+     * function to work out the parts needed to build units of a product
+     * @param product
+     * @param units
+     * @return total quantity of every part, from the product and all of its sub-assemblies
+     */
+    public Requirements explode(Product product, long units){
+        ExplodeTask task = new ExplodeTask(product);
+        ExplodeTask existing = explosions.putIfAbsent(product.getId(), task);
+        Requirements perUnit = existing != null ? existing.join() : pool.invoke(task);
+        return perUnit.times(units);
+    }
+
+    /**
+     * function to forget every result, for use after products change
+     */
+    public void clear(){explosions.clear();}
+
+    /**
+     * Explodes one unit of a product
+     * Tasks are never serialized
+     */
+    @SuppressWarnings("serial")
+    private class ExplodeTask extends RecursiveTask<Requirements> {
+        private final Product product;
+
+        private ExplodeTask(Product product){
+            this.product = product;
+        }
+
+        @Override
+        protected Requirements compute(){
+            PartQuantities subAssemblies = product.getSubAssemblies();
+            List<ExplodeTask> children = new ArrayList<>(subAssemblies.size());
+            List<ExplodeTask> forked = new ArrayList<>();
+            for(int i = 0; i < subAssemblies.size(); i++){
+                ExplodeTask child = null;
+                Product subAssembly = Inventory.lookupProduct(subAssemblies.partId(i));
+                if(subAssembly != null){
+                    child = new ExplodeTask(subAssembly);
+                    ExplodeTask existing = explosions.putIfAbsent(subAssembly.getId(), child);
+                    if(existing != null){
+                        child = existing;
+                    } else {
+                        forked.add(child);
+                    }
+                }
+                children.add(child);
+            }
+            // fork all new children but the last, which this thread explodes itself
+            for(int i = 0; i < forked.size() - 1; i++){
+                forked.get(i).fork();
+            }
+            if(!forked.isEmpty()){
+                forked.get(forked.size() - 1).invoke();
+            }
+
+            IntLongMap totals = new IntLongMap();
+            PartQuantities associatedParts = product.getAssociatedParts();
+            for(int i = 0; i < associatedParts.size(); i++){
+                totals.add(associatedParts.partId(i), associatedParts.quantity(i));
+            }
+            for(int i = 0; i < children.size(); i++){
+                ExplodeTask child = children.get(i);
+                if(child != null){
+                    Requirements childRequirements = child.join();
+                    long units = subAssemblies.quantity(i);
+                    for(int j = 0; j < childRequirements.size(); j++){
+                        totals.add(childRequirements.partIds[j], Math.multiplyExact(childRequirements.quantities[j], units));
+                    }
+                }
+            }
+            return toRequirements(totals);
+        }
+    }
+
+    /**
+     * function to list part totals as requirements sorted by part id
+     * @param totals
+     * @return requirements holding every part in the totals
+     */
+    private static Requirements toRequirements(IntLongMap totals){
+        int[] partIds = totals.keys();
+        Arrays.sort(partIds);
+        long[] quantities = new long[partIds.length];
+        for(int i = 0; i < partIds.length; i++){
+            quantities[i] = totals.get(partIds[i]);
+        }
+        return new Requirements(partIds, quantities);
+    }
+}
@@ -0,0 +1,202 @@
+package model;
+
+import collections.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works out how many units of every product can be built from the stock on hand, and which part or
+ * sub-assembly runs out first
+ * A product can be built as many times as its scarcest component allows: the stock of each associated part,
+ * or of each sub-assembly product, divided by the quantity the product uses
+ *
+ * Every product is worked out in one pass the first time a figure is asked for. After that the inventory
+ * tells the engine about each change and only the products using the changed part or product are worked out again
+ * Listeners are told after each change so views showing the figures can refresh
+ * @author Andre Simmons
+ */
+public class BuildCapacity {
+
+    /**
+     * Buildable units and bottleneck of one product
+     */
+    private static class Capacity {
+        private final int buildable;
+        private final int bottleneckId;
+        private final boolean bottleneckIsSubAssembly;
+
+        private Capacity(int buildable, int bottleneckId, boolean bottleneckIsSubAssembly){
+            this.buildable = buildable;
+            this.bottleneckId = bottleneckId;
+            this.bottleneckIsSubAssembly = bottleneckIsSubAssembly;
+        }
+    }
+
+    /**
+     * Capacity of every product, by product id
+     */
+    private final IntObjectMap<Capacity> capacities = new IntObjectMap<>();
+
+    /**
+     * True once every product has been worked out; changes are ignored until then
+     */
+    private boolean computed;
+
+    /**
+     * Called after the figures of one or more products are worked out again
+     */
+    private final List<Runnable> listeners = new ArrayList<>();
+
+    /**
+     * function to add a listener called after the figures of one or more products are worked out again
+     * Listeners run on the thread that changed the inventory
+     * @param listener
+     */
+    public void addListener(Runnable listener){listeners.add(listener);}
+
+    /**
+     * function to get the number of units of a product that can be built now
+     * @param product
+     * @return buildable units, 0 if the product has no associated parts or sub-assemblies
+     */
+    public int getBuildable(Product product){
+        Capacity capacity = capacity(product);
+        return capacity == null ? 0 : capacity.buildable;
+    }
+
+    /**
+     * function to get the part that limits how many units of a product can be built
+     * @param product
+     * @return bottleneck part, or null if a sub-assembly is the bottleneck or there is none
+     */
+    public Part getBottleneckPart(Product product){
+        Capacity capacity = capacity(product);
+        return capacity == null || capacity.bottleneckIsSubAssembly ? null : Inventory.lookupPart(capacity.bottleneckId);
+    }
+
+    /**
+     * function to get the sub-assembly that limits how many units of a product can be built
+     * @param product
+     * @return bottleneck sub-assembly, or null if a part is the bottleneck or there is none
+     */
+    public Product getBottleneckSubAssembly(Product product){
+        Capacity capacity = capacity(product);
+        return capacity == null || !capacity.bottleneckIsSubAssembly ? null : Inventory.lookupProduct(capacity.bottleneckId);
+    }
+
+    /**
+     * function to work out every product in the inventory
+     */
+    public void recomputeAll(){
+        capacities.clear();
+        for(Product product : Inventory.getAllProducts()){
+            recompute(product);
+        }
+        computed = true;
+    }
+
+    /**
+     * function to work out again the products that use a part whose stock may have changed
+     * @param users
+     */
+    void partChanged(List<Product> users){
+        if(computed && users != null && !users.isEmpty()){
+            recompute(users);
+            notifyListeners();
+        }
+    }
+
+    /**
+     * function to work out again a product whose parts or sub-assemblies may have changed, and the products using it
+     * @param product
+     * @param users
+     */
+    void productChanged(Product product, List<Product> users){
+        if(computed){
+            recompute(product);
+            recompute(users);
+            notifyListeners();
+        }
+    }
+
+    /**
+     * function to forget a product that left the inventory and work out again the products using it
+     * @param product
+     * @param users
+     */
+    void productRemoved(Product product, List<Product> users){
+        if(computed){
+            capacities.remove(product.getId());
+            recompute(users);
+            notifyListeners();
+        }
+    }
+
+    /**
+     * function to work out again every product in a list of users
+     * @param users
+     */
+    private void recompute(List<Product> users){
+        if(users != null){
+            for(Product product : users){
+                recompute(product);
+            }
+        }
+    }
+
+    /**
+     * function to tell every listener that figures changed
+     */
+    private void notifyListeners(){
+        for(Runnable listener : listeners){
+            listener.run();
+        }
+    }
+
+    /**
+     * function to find the capacity of a product, working out every product on first use
+     * @param product
+     * @return capacity of the product, or null if it has no parts or sub-assemblies
+     */
+    private Capacity capacity(Product product){
+        if(!computed){
+            recomputeAll();
+        }
+        return capacities.get(product.getId());
+    }
+
+    /**
+     * function to work out one product from the current stock of its parts and sub-assemblies
+     * @param product
+     */
+    private void recompute(Product product){
+        int buildable = Integer.MAX_VALUE;
+        int bottleneckId = 0;
+        boolean bottleneckIsSubAssembly = false;
+        PartQuantities associatedParts = product.getAssociatedParts();
+        for(int i = 0; i < associatedParts.size(); i++){
+            Part part = Inventory.lookupPart(associatedParts.partId(i));
+            int units = part == null ? 0 : Math.max(0, part.getStock()) / associatedParts.quantity(i);
+            if(units < buildable){
+                buildable = units;
+                bottleneckId = associatedParts.partId(i);
+            }
+        }
+        PartQuantities subAssemblies = product.getSubAssemblies();
+        for(int i = 0; i < subAssemblies.size(); i++){
+            Product subAssembly = Inventory.lookupProduct(subAssemblies.partId(i));
+            int units = subAssembly == null ? 0 : Math.max(0, subAssembly.getStock()) / subAssemblies.quantity(i);
+            if(units < buildable){
+                buildable = units;
+                bottleneckId = subAssemblies.partId(i);
+                bottleneckIsSubAssembly = true;
+            }
+        }
+        if(buildable == Integer.MAX_VALUE){
+            capacities.remove(product.getId());
+        } else {
+            capacities.put(product.getId(), new Capacity(buildable, bottleneckId, bottleneckIsSubAssembly));
+        }
+    }
+}
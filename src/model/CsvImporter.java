@@ -0,0 +1,438 @@
+package model;
+
+import collections.IntIntMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports parts, products and product-part associations from a CSV file
+ * The file is read in chunks with NIO, chunks are parsed in parallel and the results are added to the inventory in file order
+ * Rows are handed to an InventoryIngest, which adds them to the inventory in batches on the thread that owns it
+ * Only a few chunks and a map from part refs to part ids are in memory at a time
+ * Each chunk waits for the ingest to publish the one before it, so the inventory thread is never far behind
+ *
+ * Each line starts with its record type:
+ * inhouse,ref,name,price,stock,min,max,machineId
+ * outsourced,ref,name,price,stock,min,max,companyName
+ * product,ref,name,price,stock,min,max
+ * association,productRef,partRef[,quantity]
+ *
+ * The ref column is a number used only inside the file to link associations to parts and products
+ * An association row must come after its part and product rows and before the next product row
+ * An association without a quantity adds one of the part
+ * Imported parts and products are given new ids. Blank lines and lines starting with # are skipped
+ * A product is added to the inventory when the next product row or the end of the file is reached,
+ * so it is saved with all of its associated parts
+ * Rows are checked with the InventoryService rules used by the Add Part and Add Product screens
+ * Run the import on a background thread; it returns once every imported row is in the inventory
+ * @author Andre Simmons
+ */
+public class CsvImporter {
+
+    /**
+     * Size of each chunk read from the file
+     */
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Most error messages kept in the result
+     */
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * Adds the imported parts and products to the inventory
+     */
+    private final InventoryIngest ingest;
+
+    /**
+     * Threads that parse chunks
+     */
+    private final int threads;
+
+    /**
+     * Ids of the parts imported so far by file ref
+     */
+    private final IntIntMap partIdsByRef = new IntIntMap();
+
+    /**
+     * Latest product row, added to the inventory once the next product row or the end of the file is reached
+     */
+    private Product currentProduct;
+
+    /**
+     * File ref of the latest product row
+     */
+    private int currentProductRef;
+
+    /**
+     * Outcome of an import
+     */
+    public static class Result {
+        private int partsAdded;
+        private int productsAdded;
+        private int associationsAdded;
+        private int errorCount;
+        private final List<String> errors = new ArrayList<>();
+
+        /**
+         * parts added get function
+         * @return number of parts added
+         */
+        public int getPartsAdded(){return partsAdded;}
+
+        /**
+         * products added get function
+         * @return number of products added
+         */
+        public int getProductsAdded(){return productsAdded;}
+
+        /**
+         * associations added get function
+         * @return number of associated parts added to products
+         */
+        public int getAssociationsAdded(){return associationsAdded;}
+
+        /**
+         * error count get function
+         * @return number of rows that were skipped
+         */
+        public int getErrorCount(){return errorCount;}
+
+        /**
+         * errors get function
+         * @return messages for the first skipped rows
+         */
+        public List<String> getErrors(){return errors;}
+
+        private void error(long line, String message){
+            if(errorCount++ < MAX_ERRORS){
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+    }
+
+    /**
+     * One parsed row; association rows keep the product ref in ref, the part ref in partRef and the quantity in stock
+     */
+    private static class Row {
+        private String type;
+        private int ref;
+        private int partRef;
+        private String name;
+        private double price;
+        private int stock;
+        private int min;
+        private int max;
+        private String extra;
+        private int line;
+        private String error;
+    }
+
+    /**
+     * Rows parsed from one chunk
+     */
+    private static class ParsedChunk {
+        private final List<Row> rows = new ArrayList<>();
+        private int lineCount;
+    }
+
+    /**
+     * Constructor variable for the importer
+     * @param ingest
+     * @param threads
+     */
+    public CsvImporter(InventoryIngest ingest, int threads){
+        this.ingest = ingest;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Constructor variable for an importer using every processor
+     * @param ingest
+     */
+    public CsvImporter(InventoryIngest ingest){
+        this(ingest, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * function to import a CSV file into the inventory
+     * @param file
+     * @return import counts and errors
+     * @throws IOException
+     */
+    public Result importFile(Path file) throws IOException {
+        Result result = new Result();
+        ExecutorService parsers = Executors.newFixedThreadPool(threads);
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        long linesBefore = 0;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            byte[] carry = new byte[0];
+            boolean end = false;
+            while(!end || !inFlight.isEmpty()){
+                while(!end && inFlight.size() < threads * 2){
+                    buffer.clear();
+                    int read = 0;
+                    while(buffer.hasRemaining() && (read = channel.read(buffer)) > 0){
+                        // keep filling the chunk
+                    }
+                    end = read < 0;
+                    buffer.flip();
+                    byte[] bytes = new byte[carry.length + buffer.remaining()];
+                    System.arraycopy(carry, 0, bytes, 0, carry.length);
+                    buffer.get(bytes, carry.length, buffer.remaining());
+                    int cut = bytes.length;
+                    if(!end){
+                        cut = lastNewline(bytes) + 1;
+                    }
+                    carry = Arrays.copyOfRange(bytes, cut, bytes.length);
+                    byte[] chunk = cut == bytes.length ? bytes : Arrays.copyOf(bytes, cut);
+                    if(chunk.length > 0){
+                        inFlight.add(parsers.submit(() -> parse(chunk)));
+                    }
+                }
+                if(!inFlight.isEmpty()){
+                    ParsedChunk parsed = inFlight.poll().get();
+                    apply(parsed, linesBefore, result);
+                    linesBefore += parsed.lineCount;
+                    ingest.awaitPublished();
+                }
+            }
+            if(currentProduct != null){
+                ingest.addProduct(currentProduct);
+                currentProduct = null;
+            }
+            ingest.awaitPublished();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed", e.getCause());
+        } finally {
+            parsers.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * function to find the last line break in a chunk
+     * @param bytes
+     * @return position of the last line break, or -1 if there is none
+     */
+    private static int lastNewline(byte[] bytes){
+        for(int i = bytes.length - 1; i >= 0; i--){
+            if(bytes[i] == '\n'){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * function to parse and check every line of a chunk
+     * Runs on a parser thread and does not touch the inventory
+     * @param chunk
+     * @return parsed rows
+     */
+    private static ParsedChunk parse(byte[] chunk){
+        ParsedChunk parsed = new ParsedChunk();
+        String text = new String(chunk, StandardCharsets.UTF_8);
+        int start = 0;
+        while(start < text.length()){
+            int end = text.indexOf('\n', start);
+            if(end < 0){
+                end = text.length();
+            }
+            parsed.lineCount++;
+            String line = text.substring(start, end > start && text.charAt(end - 1) == '\r' ? end - 1 : end);
+            start = end + 1;
+            if(line.isBlank() || line.startsWith("#")){
+                continue;
+            }
+            Row row = parseRow(line);
+            row.line = parsed.lineCount;
+            parsed.rows.add(row);
+        }
+        return parsed;
+    }
+
+    /**
+     * function to parse and check one line
+     * @param line
+     * @return parsed row, with an error message if the line is invalid
+     */
+    private static Row parseRow(String line){
+        Row row = new Row();
+        List<String> fields = splitFields(line);
+        row.type = fields.get(0).trim().toLowerCase();
+        try {
+            switch (row.type) {
+                case "inhouse":
+                case "outsourced":
+                    expectFields(fields, 8);
+                    parseItem(row, fields);
+                    row.extra = fields.get(7);
+                    if(row.type.equals("inhouse") && row.error == null){
+                        try {
+                            InventoryService.parseMachineId(row.extra);
+                        } catch (ValidationException e) {
+                            row.error = e.getMessage();
+                        }
+                    }
+                    break;
+                case "product":
+                    expectFields(fields, 7);
+                    parseItem(row, fields);
+                    break;
+                case "association":
+                    if(fields.size() != 4){
+                        expectFields(fields, 3);
+                    }
+                    row.ref = Integer.parseInt(fields.get(1).trim());
+                    row.partRef = Integer.parseInt(fields.get(2).trim());
+                    row.stock = fields.size() == 4 ? Integer.parseInt(fields.get(3).trim()) : 1;
+                    if(row.stock <= 0){
+                        row.error = "Quantity must be a number greater than 0.";
+                    }
+                    break;
+                default:
+                    row.error = "Unknown record type " + row.type;
+            }
+        } catch (NumberFormatException e) {
+            row.error = "This row contains blank fields/missing values.";
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+
+    /**
+     * function to parse the shared part/product columns and check them with the InventoryService rules
+     * @param row
+     * @param fields
+     */
+    private static void parseItem(Row row, List<String> fields){
+        row.ref = Integer.parseInt(fields.get(1).trim());
+        row.name = fields.get(2);
+        row.price = Double.parseDouble(fields.get(3).trim());
+        row.stock = Integer.parseInt(fields.get(4).trim());
+        row.min = Integer.parseInt(fields.get(5).trim());
+        row.max = Integer.parseInt(fields.get(6).trim());
+        try {
+            InventoryService.validate(row.name, row.stock, row.min, row.max);
+        } catch (ValidationException e) {
+            row.error = e.getMessage();
+        }
+    }
+
+    /**
+     * function to check the number of columns in a line
+     * @param fields
+     * @param count
+     */
+    private static void expectFields(List<String> fields, int count){
+        if(fields.size() != count){
+            throw new IllegalArgumentException("Expected " + count + " columns but found " + fields.size());
+        }
+    }
+
+    /**
+     * function to split a CSV line into columns
+     * Columns may be wrapped in double quotes to hold commas, with "" for a quote inside
+     * @param line
+     * @return columns
+     */
+    private static List<String> splitFields(String line){
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0; i < line.length(); i++){
+            char c = line.charAt(i);
+            if(quoted){
+                if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"'){
+                    field.append('"');
+                    i++;
+                } else if(c == '"'){
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"'){
+                quoted = true;
+            } else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * function to hand the rows of a parsed chunk to the ingest in file order
+     * A product is handed over when the next product row is reached
+     * Products are not in the inventory yet, so associated parts are added to their quantities directly
+     * and linked when the products are published
+     * @param parsed
+     * @param linesBefore
+     * @param result
+     */
+    private void apply(ParsedChunk parsed, long linesBefore, Result result){
+        for(Row row : parsed.rows){
+            long line = linesBefore + row.line;
+            if(row.error != null){
+                result.error(line, row.error);
+                continue;
+            }
+            switch (row.type) {
+                case "inhouse":
+                    Part inHouse = new InHouse(0, row.name, row.price, row.stock, row.min,
+                            row.max, Integer.parseInt(row.extra.trim()));
+                    partIdsByRef.put(row.ref, ingest.addPart(inHouse));
+                    result.partsAdded++;
+                    break;
+                case "outsourced":
+                    Part outsourced = new Outsourced(0, row.name, row.price, row.stock,
+                            row.min, row.max, row.extra);
+                    partIdsByRef.put(row.ref, ingest.addPart(outsourced));
+                    result.partsAdded++;
+                    break;
+                case "product":
+                    if(currentProduct != null){
+                        ingest.addProduct(currentProduct);
+                    }
+                    currentProduct = new Product(0, row.name, row.price, row.stock, row.min, row.max);
+                    currentProductRef = row.ref;
+                    result.productsAdded++;
+                    break;
+                case "association":
+                    int partId = partIdsByRef.get(row.partRef);
+                    if(currentProduct == null || currentProductRef != row.ref){
+                        result.error(line, "Association must follow its product row, before the next product.");
+                    } else if(partId == 0){
+                        result.error(line, "Association refers to a part not defined earlier in the file.");
+                    } else {
+                        currentProduct.getAssociatedParts().add(partId, row.stock);
+                        result.associationsAdded++;
+                    }
+                    break;
+            }
+        }
+    }
+}
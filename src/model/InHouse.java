@@ -36,5 +36,11 @@ public class InHouse extends Part{
      * In-house part machine id set function
      * @param machineId
      */
-    public void setMachineId(int machineId){this.machineId = machineId;}
+    public void setMachineId(int machineId){
+        boolean inInventory = Inventory.partChanging(this);
+        this.machineId = machineId;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 }
@@ -1,24 +1,38 @@
 package model;
 
+import collections.IntIntMap;
+import collections.IntObjectMap;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
 /**
  * Creates an inventory of products and parts
+ * The lists and indexes are not thread safe and are changed on the FX application thread once the app is running
+ * Other threads add parts and products through InventoryIngest
  *
  * @author Andre Simmons
  */
 public class Inventory {
 
     /**
-     * Part ID
+     * Part ID, atomic so any thread can get a new id
      */
-    private static int partId = 0;
+    private static final AtomicInteger partId = new AtomicInteger();
 
     /**
-     * Product Id
+     * Product Id, atomic so any thread can get a new id
      */
-    private static int productId = 0;
+    private static final AtomicInteger productId = new AtomicInteger();
 
     /**
      * A list of all parts in the inventory
@@ -30,6 +44,71 @@ public class Inventory {
      */
     private static ObservableList<Product> allProducts = FXCollections.observableArrayList();
 
+    /**
+     * Index of all parts by part id
+     */
+    private static IntObjectMap<Part> partIndex = new IntObjectMap<>();
+
+    /**
+     * Index of all products by product id
+     */
+    private static IntObjectMap<Product> productIndex = new IntObjectMap<>();
+
+    /**
+     * Row of every part in the all parts list, by part id
+     */
+    private static IntIntMap partRows = new IntIntMap();
+
+    /**
+     * Row of every product in the all products list, by product id
+     */
+    private static IntIntMap productRows = new IntIntMap();
+
+    /**
+     * Products in the inventory that use each part, by part id
+     */
+    private static IntObjectMap<List<Product>> partUsers = new IntObjectMap<>();
+
+    /**
+     * Products in the inventory built from each product, by sub-assembly product id
+     */
+    private static IntObjectMap<List<Product>> assemblyUsers = new IntObjectMap<>();
+
+    /**
+     * Buildable units of every product, kept up to date as parts and products change
+     */
+    private static final BuildCapacity buildCapacity = new BuildCapacity();
+
+    /**
+     * Reorder and over stock alerts of every part, kept up to date as parts change
+     */
+    private static final StockAlerts<Part> partAlerts = new StockAlerts<>(Part::getId, Part::getStock, Part::getMin, Part::getMax);
+
+    /**
+     * Reorder and over stock alerts of every product, kept up to date as products change
+     */
+    private static final StockAlerts<Product> productAlerts = new StockAlerts<>(Product::getId, Product::getStock, Product::getMin, Product::getMax);
+
+    /**
+     * Value of the parts by type, company and machine, kept up to date as parts change
+     */
+    private static final InventoryValuation valuation = new InventoryValuation();
+
+    /**
+     * Search index of all parts by id and name
+     */
+    private static SearchIndex<Part> partSearchIndex = new SearchIndex<>(Part::getId, Part::getName);
+
+    /**
+     * Search index of all products by id and name
+     */
+    private static SearchIndex<Product> productSearchIndex = new SearchIndex<>(Product::getId, Product::getName);
+
+    /**
+     * Store that saves every change to disk, null when the inventory is only kept in memory
+     */
+    private static InventoryStore store;
+
     /**
      * all parts get function
      * @return all inventory parts
@@ -42,54 +121,185 @@ public class Inventory {
      */
     public static ObservableList<Product> getAllProducts(){return allProducts;}
 
+    /**
+     * build capacity get function
+     * @return buildable units and bottlenecks of every product
+     */
+    public static BuildCapacity getBuildCapacity(){return buildCapacity;}
+
+    /**
+     * part alerts get function
+     * @return reorder and over stock alerts of every part
+     */
+    public static StockAlerts<Part> getPartAlerts(){return partAlerts;}
+
+    /**
+     * product alerts get function
+     * @return reorder and over stock alerts of every product
+     */
+    public static StockAlerts<Product> getProductAlerts(){return productAlerts;}
+
+    /**
+     * valuation get function
+     * @return value of the parts by type, company and machine
+     */
+    public static InventoryValuation getValuation(){return valuation;}
+
     /**
      * function to add part to inventory
      * @param newPart
      */
-    public static void addPart(Part newPart){allParts.add(newPart);}
+    public static void addPart(Part newPart){
+        allParts.add(newPart);
+        partRows.put(newPart.getId(), allParts.size() - 1);
+        indexPart(newPart);
+    }
+
+    /**
+     * function to add many parts to inventory with a single list change
+     * @param newParts
+     */
+    public static void addAllParts(Collection<? extends Part> newParts){
+        int row = allParts.size();
+        allParts.addAll(newParts);
+        for(Part newPart : newParts){
+            partRows.put(newPart.getId(), row++);
+            indexPart(newPart);
+        }
+    }
 
     /**
      * function to add product to inventory
      * @param newProduct
      */
-    public static void addProduct(Product newProduct){allProducts.add(newProduct);}
+    public static void addProduct(Product newProduct){
+        allProducts.add(newProduct);
+        productRows.put(newProduct.getId(), allProducts.size() - 1);
+        indexProduct(newProduct);
+    }
+
+    /**
+     * function to put a part back in the inventory at a row, for undoing a delete
+     * @param row row to insert at, the end of the list if it is past the end
+     * @param newPart
+     */
+    static void insertPart(int row, Part newPart){
+        row = Math.max(0, Math.min(row, allParts.size()));
+        allParts.add(row, newPart);
+        renumberRows(allParts, partRows, row, Part::getId);
+        indexPart(newPart);
+    }
+
+    /**
+     * function to put a product back in the inventory at a row, for undoing a delete
+     * @param row row to insert at, the end of the list if it is past the end
+     * @param newProduct
+     */
+    static void insertProduct(int row, Product newProduct){
+        row = Math.max(0, Math.min(row, allProducts.size()));
+        allProducts.add(row, newProduct);
+        renumberRows(allProducts, productRows, row, Product::getId);
+        indexProduct(newProduct);
+    }
+
+    /**
+     * function to find the row of a part
+     * @param selectedPart
+     * @return row of the part, or -1 if it is not in the inventory
+     */
+    static int partRow(Part selectedPart){return rowOf(allParts, partRows, selectedPart, selectedPart.getId());}
+
+    /**
+     * function to find the row of a product
+     * @param selectedProduct
+     * @return row of the product, or -1 if it is not in the inventory
+     */
+    static int productRow(Product selectedProduct){
+        return rowOf(allProducts, productRows, selectedProduct, selectedProduct.getId());
+    }
+
+    /**
+     * function to add many products to inventory with a single list change
+     * @param newProducts
+     */
+    public static void addAllProducts(Collection<? extends Product> newProducts){
+        int row = allProducts.size();
+        allProducts.addAll(newProducts);
+        for(Product newProduct : newProducts){
+            productRows.put(newProduct.getId(), row++);
+            indexProduct(newProduct);
+        }
+    }
 
     /**
      * new part get function
      * @return new part
      */
-    public static int getNewPartId(){return ++partId;}
+    public static int getNewPartId(){return partId.incrementAndGet();}
 
     /**
      * new product get function
      * @return new product
      */
-    public static int getNewProductId(){return ++productId;}
+    public static int getNewProductId(){return productId.incrementAndGet();}
+
+    /**
+     * last part id get function
+     * @return last part id handed out
+     */
+    static int getLastPartId(){return partId.get();}
+
+    /**
+     * last product id get function
+     * @return last product id handed out
+     */
+    static int getLastProductId(){return productId.get();}
+
+    /**
+     * function to move the id counters past ids loaded from disk
+     * @param lastPartId
+     * @param lastProductId
+     */
+    static void restoreIds(int lastPartId, int lastProductId){
+        partId.accumulateAndGet(lastPartId, Math::max);
+        productId.accumulateAndGet(lastProductId, Math::max);
+    }
+
+    /**
+     * store set function
+     * @param inventoryStore
+     */
+    static void setStore(InventoryStore inventoryStore){store = inventoryStore;}
+
+    /**
+     * function to remove every part and product and forget the store, so another store can be opened
+     * Nothing is logged and the id counters start over
+     */
+    static void clear(){
+        store = null;
+        deleteAllProducts(new ArrayList<>(allProducts));
+        deleteAllParts(new ArrayList<>(allParts));
+        partId.set(0);
+        productId.set(0);
+    }
 
     /**
      * function to search for a part
      * @param partId
      * @return found part
      */
-    public static Part lookupPart(int partId){
-        Part partFound = null;
-        for(Part part : allParts){
-            if(part.getId() == partId){
-                partFound = part;
-            }
-        }
-        return partFound;
-    }
+    public static Part lookupPart(int partId){return partIndex.get(partId);}
 
     /**
      * function to search the list of parts by name
+     * A null name finds the parts that have no name
      * @param partName
      * @return found part
      */
     public static ObservableList<Part> lookupPart(String partName){
         ObservableList<Part> partsFound = FXCollections.observableArrayList();
         for(Part part : allParts){
-            if(part.getName().equals(partName)){
+            if(Objects.equals(part.getName(), partName)){
                 partsFound.add(part);
             }
         }
@@ -101,25 +311,18 @@ public class Inventory {
      * @param productId
      * @return found product
      */
-    public static Product lookupProduct(int productId){
-        Product productFound = null;
-        for(Product product: allProducts){
-            if(product.getId() == productId) {
-                productFound = product;
-            }
-        }
-        return productFound;
-    }
+    public static Product lookupProduct(int productId){return productIndex.get(productId);}
 
     /**
      * function to search list of products by name
+     * A null name finds the products that have no name
      * @param productName
      * @return found product
      */
     public static ObservableList<Product> lookupProduct(String productName){
         ObservableList<Product> productsFound = FXCollections.observableArrayList();
         for(Product product : allProducts){
-            if(product.getName().equals(productName)){
+            if(Objects.equals(product.getName(), productName)){
                 productsFound.add(product);
             }
         }
@@ -131,14 +334,70 @@ public class Inventory {
      * @param index
      * @param selectedPart
      */
-    public static void updatePart (int index, Part selectedPart){allParts.set(index, selectedPart);}
+    public static void updatePart (int index, Part selectedPart){
+        Part oldPart = allParts.set(index, selectedPart);
+        unindexPart(oldPart);
+        partRows.put(selectedPart.getId(), index);
+        partIndex.put(selectedPart.getId(), selectedPart);
+        partSearchIndex.add(selectedPart);
+        partAlerts.update(selectedPart);
+        valuation.add(selectedPart);
+        buildCapacity.partChanged(partUsers.get(selectedPart.getId()));
+        if(store != null){
+            store.logPutPart(selectedPart);
+            logPartRemoved(oldPart);
+        }
+    }
 
     /**
      * function to update/replace product in the all products list
      * @param index
      * @param selectedProduct
      */
-    public static void updateProduct(int index, Product selectedProduct){allProducts.set(index, selectedProduct);}
+    public static void updateProduct(int index, Product selectedProduct){
+        Product oldProduct = allProducts.set(index, selectedProduct);
+        unindexProduct(oldProduct);
+        productRows.put(selectedProduct.getId(), index);
+        productIndex.put(selectedProduct.getId(), selectedProduct);
+        productSearchIndex.add(selectedProduct);
+        productAlerts.update(selectedProduct);
+        linkAssociatedParts(selectedProduct);
+        buildCapacity.productChanged(selectedProduct, assemblyUsers.get(selectedProduct.getId()));
+        if(store != null){
+            store.logPutProduct(selectedProduct);
+            logProductRemoved(oldProduct);
+        }
+    }
+
+    /**
+     * function to replace the part with the same id as the new part, keeping its row
+     * Bound tables see a single replace change and the row does not move
+     * @param newPart
+     * @return replaced part, or null if no part has the id
+     */
+    public static Part replacePart(Part newPart){
+        Part oldPart = partIndex.get(newPart.getId());
+        if(oldPart == null){
+            return null;
+        }
+        updatePart(rowOf(allParts, partRows, oldPart, oldPart.getId()), newPart);
+        return oldPart;
+    }
+
+    /**
+     * function to replace the product with the same id as the new product, keeping its row
+     * Bound tables see a single replace change and the row does not move
+     * @param newProduct
+     * @return replaced product, or null if no product has the id
+     */
+    public static Product replaceProduct(Product newProduct){
+        Product oldProduct = productIndex.get(newProduct.getId());
+        if(oldProduct == null){
+            return null;
+        }
+        updateProduct(rowOf(allProducts, productRows, oldProduct, oldProduct.getId()), newProduct);
+        return oldProduct;
+    }
 
     /**
      * function to delete part
@@ -146,8 +405,15 @@ public class Inventory {
      * @return boolean result of part removal
      */
     public static boolean deletePart(Part selectedPart){
-        if(allParts.contains(selectedPart)){
-            allParts.remove(selectedPart);
+        int row = rowOf(allParts, partRows, selectedPart, selectedPart.getId());
+        if(row >= 0){
+            allParts.remove(row);
+            renumberRows(allParts, partRows, row, Part::getId);
+            unindexPart(selectedPart);
+            buildCapacity.partChanged(partUsers.get(selectedPart.getId()));
+            if(store != null){
+                logPartRemoved(selectedPart);
+            }
             return true;
         }
         else{
@@ -161,12 +427,441 @@ public class Inventory {
      * @return boolean result of product removal
      */
     public static boolean deleteProduct(Product selectedProduct){
-        if(allProducts.contains(selectedProduct)){
-            allProducts.remove(selectedProduct);
+        int row = rowOf(allProducts, productRows, selectedProduct, selectedProduct.getId());
+        if(row >= 0){
+            allProducts.remove(row);
+            renumberRows(allProducts, productRows, row, Product::getId);
+            unindexProduct(selectedProduct);
+            buildCapacity.productRemoved(selectedProduct, assemblyUsers.get(selectedProduct.getId()));
+            if(store != null){
+                logProductRemoved(selectedProduct);
+            }
             return true;
         }
         else{
             return false;
         }
     }
+
+    /**
+     * function to delete many parts with a single list change
+     * @param selectedParts
+     * @return number of parts removed
+     */
+    public static int deleteAllParts(Collection<? extends Part> selectedParts){
+        Set<Part> removing = Collections.newSetFromMap(new IdentityHashMap<>());
+        removing.addAll(selectedParts);
+        int sizeBefore = allParts.size();
+        allParts.removeAll(removing);
+        if(allParts.size() != sizeBefore){
+            renumberRows(allParts, partRows, 0, Part::getId);
+            for(Part selectedPart : removing){
+                if(partSearchIndex.contains(selectedPart)){
+                    unindexPart(selectedPart);
+                    buildCapacity.partChanged(partUsers.get(selectedPart.getId()));
+                    if(store != null){
+                        logPartRemoved(selectedPart);
+                    }
+                }
+            }
+        }
+        return sizeBefore - allParts.size();
+    }
+
+    /**
+     * function to delete many products with a single list change
+     * @param selectedProducts
+     * @return number of products removed
+     */
+    public static int deleteAllProducts(Collection<? extends Product> selectedProducts){
+        Set<Product> removing = Collections.newSetFromMap(new IdentityHashMap<>());
+        removing.addAll(selectedProducts);
+        int sizeBefore = allProducts.size();
+        allProducts.removeAll(removing);
+        if(allProducts.size() != sizeBefore){
+            renumberRows(allProducts, productRows, 0, Product::getId);
+            for(Product selectedProduct : removing){
+                if(productSearchIndex.contains(selectedProduct)){
+                    unindexProduct(selectedProduct);
+                    buildCapacity.productRemoved(selectedProduct, assemblyUsers.get(selectedProduct.getId()));
+                    if(store != null){
+                        logProductRemoved(selectedProduct);
+                    }
+                }
+            }
+        }
+        return sizeBefore - allProducts.size();
+    }
+
+    /**
+     * function to find the products that use a part
+     * Takes time in proportion to the number of products using the part
+     * @param selectedPart
+     * @return products in the inventory with the part id among their associated parts, each listed once
+     */
+    public static List<Product> getProductsUsingPart(Part selectedPart){
+        List<Product> users = partUsers.get(selectedPart.getId());
+        return users == null ? Collections.emptyList() : new ArrayList<>(users);
+    }
+
+    /**
+     * function to remove a part from the associated parts of every product that uses it
+     * Each changed product is saved again
+     * @param selectedPart
+     * @return number of products changed
+     */
+    public static int deletePartFromProducts(Part selectedPart){
+        int partId = selectedPart.getId();
+        List<Product> products = getProductsUsingPart(selectedPart);
+        for(Product product : products){
+            product.deleteAssociatedPart(partId, Integer.MAX_VALUE);
+            if(store != null){
+                store.logPutProduct(product);
+            }
+        }
+        return products.size();
+    }
+
+    /**
+     * function to find the products that are built from a product
+     * @param subAssembly
+     * @return products in the inventory with the product id among their sub-assemblies
+     */
+    public static List<Product> getProductsUsingSubAssembly(Product subAssembly){
+        List<Product> users = assemblyUsers.get(subAssembly.getId());
+        return users == null ? Collections.emptyList() : new ArrayList<>(users);
+    }
+
+    /**
+     * function to check whether a product is the one in the inventory with its id
+     * @param product
+     * @return true if the product is in the inventory
+     */
+    static boolean isInInventory(Product product){return productIndex.get(product.getId()) == product;}
+
+    /**
+     * function to record that a product in the inventory uses a part
+     * @param product
+     * @param partId
+     */
+    static void linkAssociatedPart(Product product, int partId){link(partUsers, product, partId);}
+
+    /**
+     * function to record that a product in the inventory no longer uses a part
+     * @param product
+     * @param partId
+     */
+    static void unlinkAssociatedPart(Product product, int partId){unlink(partUsers, product, partId);}
+
+    /**
+     * function to record that the parts or sub-assemblies of a product in the inventory changed
+     * @param product
+     */
+    static void componentsChanged(Product product){
+        buildCapacity.productChanged(product, assemblyUsers.get(product.getId()));
+    }
+
+    /**
+     * function to record that a product in the inventory is built from another product
+     * @param product
+     * @param subAssemblyId
+     */
+    static void linkSubAssembly(Product product, int subAssemblyId){link(assemblyUsers, product, subAssemblyId);}
+
+    /**
+     * function to record that a product in the inventory is no longer built from another product
+     * @param product
+     * @param subAssemblyId
+     */
+    static void unlinkSubAssembly(Product product, int subAssemblyId){unlink(assemblyUsers, product, subAssemblyId);}
+
+    /**
+     * function to add a product to the users of an id
+     * @param users
+     * @param product
+     * @param id
+     */
+    private static void link(IntObjectMap<List<Product>> users, Product product, int id){
+        List<Product> products = users.get(id);
+        if(products == null){
+            products = new ArrayList<>(2);
+            users.put(id, products);
+        }
+        products.add(product);
+    }
+
+    /**
+     * function to remove a product from the users of an id
+     * @param users
+     * @param product
+     * @param id
+     */
+    private static void unlink(IntObjectMap<List<Product>> users, Product product, int id){
+        List<Product> products = users.get(id);
+        if(products == null){
+            return;
+        }
+        for(int i = products.size() - 1; i >= 0; i--){
+            if(products.get(i) == product){
+                products.remove(i);
+                break;
+            }
+        }
+        if(products.isEmpty()){
+            users.remove(id);
+        }
+    }
+
+    /**
+     * function to search parts by id or name
+     * @param searchString
+     * @return parts whose id or name contains the search text
+     */
+    public static ObservableList<Part> searchParts(String searchString){
+        return FXCollections.observableArrayList(partSearchIndex.search(searchString));
+    }
+
+    /**
+     * function to search products by id or name
+     * @param searchString
+     * @return products whose id or name contains the search text
+     */
+    public static ObservableList<Product> searchProducts(String searchString){
+        return FXCollections.observableArrayList(productSearchIndex.search(searchString));
+    }
+
+    /**
+     * function to add a part to the id and search indexes and log it
+     * @param newPart
+     */
+    private static void indexPart(Part newPart){
+        partIndex.put(newPart.getId(), newPart);
+        partSearchIndex.add(newPart);
+        partAlerts.update(newPart);
+        valuation.add(newPart);
+        buildCapacity.partChanged(partUsers.get(newPart.getId()));
+        if(store != null){
+            store.logPutPart(newPart);
+        }
+    }
+
+    /**
+     * function to add a product to the id and search indexes and log it
+     * @param newProduct
+     */
+    private static void indexProduct(Product newProduct){
+        productIndex.put(newProduct.getId(), newProduct);
+        productSearchIndex.add(newProduct);
+        productAlerts.update(newProduct);
+        linkAssociatedParts(newProduct);
+        buildCapacity.productChanged(newProduct, assemblyUsers.get(newProduct.getId()));
+        if(store != null){
+            store.logPutProduct(newProduct);
+        }
+    }
+
+    /**
+     * function to take a part out of the valuation before one of its fields is set
+     * @param part
+     * @return true if the part is in the inventory and partChanged must be called after the field is set
+     */
+    static boolean partChanging(Part part){
+        if(!partSearchIndex.contains(part)){
+            return false;
+        }
+        valuation.remove(part);
+        return true;
+    }
+
+    /**
+     * function to put a part back in the valuation after one of its fields was set, check its stock again and save it
+     * @param part
+     */
+    static void partChanged(Part part){
+        valuation.add(part);
+        if(partIndex.get(part.getId()) == part){
+            partAlerts.update(part);
+            buildCapacity.partChanged(partUsers.get(part.getId()));
+            if(store != null){
+                store.logPutPart(part);
+            }
+        }
+    }
+
+    /**
+     * function to take a part out of the search index before its name is set
+     * @param part
+     * @return true if the part is in the inventory and partRenamed must be called after the name is set
+     */
+    static boolean partRenaming(Part part){
+        if(!partSearchIndex.contains(part)){
+            return false;
+        }
+        partSearchIndex.remove(part);
+        return true;
+    }
+
+    /**
+     * function to put a part back in the search index under its new name and save it
+     * @param part
+     */
+    static void partRenamed(Part part){
+        partSearchIndex.add(part);
+        if(store != null && partIndex.get(part.getId()) == part){
+            store.logPutPart(part);
+        }
+    }
+
+    /**
+     * function to take a product out of the search index before its name is set
+     * @param product
+     * @return true if the product is in the inventory and productRenamed must be called after the name is set
+     */
+    static boolean productRenaming(Product product){
+        if(!productSearchIndex.contains(product)){
+            return false;
+        }
+        productSearchIndex.remove(product);
+        return true;
+    }
+
+    /**
+     * function to put a product back in the search index under its new name and save it
+     * @param product
+     */
+    static void productRenamed(Product product){
+        productSearchIndex.add(product);
+        if(store != null && productIndex.get(product.getId()) == product){
+            store.logPutProduct(product);
+        }
+    }
+
+    /**
+     * function to check a product's stock again after its stock, min or max was set, and save it
+     * @param product
+     */
+    static void productStockChanged(Product product){
+        productAlerts.update(product);
+        buildCapacity.partChanged(assemblyUsers.get(product.getId()));
+        productChanged(product);
+    }
+
+    /**
+     * function to save a product after one of its fields was set
+     * @param product
+     */
+    static void productChanged(Product product){
+        if(store != null){
+            store.logPutProduct(product);
+        }
+    }
+
+    /**
+     * function to record every part and sub-assembly a product uses
+     * @param newProduct
+     */
+    private static void linkAssociatedParts(Product newProduct){
+        PartQuantities associatedParts = newProduct.getAssociatedParts();
+        for(int i = 0; i < associatedParts.size(); i++){
+            linkAssociatedPart(newProduct, associatedParts.partId(i));
+        }
+        PartQuantities subAssemblies = newProduct.getSubAssemblies();
+        for(int i = 0; i < subAssemblies.size(); i++){
+            linkSubAssembly(newProduct, subAssemblies.partId(i));
+        }
+    }
+
+    /**
+     * function to drop a part from the id and search indexes
+     * The id is kept if it now belongs to a newer part with the same id
+     * @param oldPart
+     */
+    private static void unindexPart(Part oldPart){
+        partSearchIndex.remove(oldPart);
+        partAlerts.remove(oldPart);
+        valuation.remove(oldPart);
+        if(partIndex.get(oldPart.getId()) == oldPart){
+            partIndex.remove(oldPart.getId());
+            partRows.remove(oldPart.getId());
+        }
+    }
+
+    /**
+     * function to drop a product from the id and search indexes
+     * The id is kept if it now belongs to a newer product with the same id
+     * @param oldProduct
+     */
+    private static void unindexProduct(Product oldProduct){
+        productSearchIndex.remove(oldProduct);
+        productAlerts.remove(oldProduct);
+        PartQuantities associatedParts = oldProduct.getAssociatedParts();
+        for(int i = 0; i < associatedParts.size(); i++){
+            unlinkAssociatedPart(oldProduct, associatedParts.partId(i));
+        }
+        PartQuantities subAssemblies = oldProduct.getSubAssemblies();
+        for(int i = 0; i < subAssemblies.size(); i++){
+            unlinkSubAssembly(oldProduct, subAssemblies.partId(i));
+        }
+        if(productIndex.get(oldProduct.getId()) == oldProduct){
+            productIndex.remove(oldProduct.getId());
+            productRows.remove(oldProduct.getId());
+        }
+    }
+
+    /**
+     * function to find the row of an item in a list
+     * Uses the row index, and only scans the list if the index is out of date for the item
+     * @param list
+     * @param rows
+     * @param item
+     * @param id
+     * @return row of the item, or -1 if it is not in the list
+     */
+    private static <T> int rowOf(List<T> list, IntIntMap rows, T item, int id){
+        int row = rows.getOrDefault(id, -1);
+        if(row >= 0 && row < list.size() && list.get(row) == item){
+            return row;
+        }
+        for(int i = 0; i < list.size(); i++){
+            if(list.get(i) == item){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * function to refresh the row index from a row to the end of a list after rows were removed
+     * @param list
+     * @param rows
+     * @param from
+     * @param id
+     */
+    private static <T> void renumberRows(List<T> list, IntIntMap rows, int from, ToIntFunction<T> id){
+        for(int row = from; row < list.size(); row++){
+            rows.put(id.applyAsInt(list.get(row)), row);
+        }
+    }
+
+    /**
+     * function to log a part removal
+     * Nothing is logged while another part still uses the same id, since the store keeps one part per id
+     * @param oldPart
+     */
+    private static void logPartRemoved(Part oldPart){
+        if(partIndex.get(oldPart.getId()) == null){
+            store.logDeletePart(oldPart.getId());
+        }
+    }
+
+    /**
+     * function to log a product removal
+     * Nothing is logged while another product still uses the same id, since the store keeps one product per id
+     * @param oldProduct
+     */
+    private static void logProductRemoved(Product oldProduct){
+        if(productIndex.get(oldProduct.getId()) == null){
+            store.logDeleteProduct(oldProduct.getId());
+        }
+    }
 }
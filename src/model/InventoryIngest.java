@@ -0,0 +1,137 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets any number of threads add parts and products to the inventory while the UI reads it
+ * Writers give each item a new id and queue it without locking
+ * Queued items are applied to the inventory in batches on the publisher thread, normally the FX application thread,
+ * so bound tables see one list change per batch
+ * Writers that produce items faster than the publisher applies them call awaitPublished to wait for it to catch up
+ * @author Andre Simmons
+ */
+public class InventoryIngest {
+
+    /**
+     * Parts waiting to be added
+     */
+    private final ConcurrentLinkedQueue<Part> pendingParts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Products waiting to be added
+     */
+    private final ConcurrentLinkedQueue<Product> pendingProducts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True while a batch is scheduled on the publisher and not yet started
+     */
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    /**
+     * Number of items queued so far
+     */
+    private final AtomicLong queued = new AtomicLong();
+
+    /**
+     * Number of items added to the inventory so far, guarded by this ingest
+     */
+    private long published;
+
+    /**
+     * Runs batches on the thread that owns the inventory, such as Platform::runLater
+     */
+    private final Executor publisher;
+
+    /**
+     * Constructor variable for the ingest
+     * @param publisher
+     */
+    public InventoryIngest(Executor publisher){
+        this.publisher = publisher;
+    }
+
+    /**
+     * function to queue a new part from any thread
+     * The part is given a new part id
+     * @param newPart
+     * @return new part id
+     */
+    public int addPart(Part newPart){
+        int id = Inventory.getNewPartId();
+        newPart.setId(id);
+        queued.incrementAndGet();
+        pendingParts.add(newPart);
+        schedulePublish();
+        return id;
+    }
+
+    /**
+     * function to queue a new product from any thread
+     * The product is given a new product id
+     * Parts it uses must be queued first; its associated parts are linked when it is published
+     * @param newProduct
+     * @return new product id
+     */
+    public int addProduct(Product newProduct){
+        int id = Inventory.getNewProductId();
+        newProduct.setId(id);
+        queued.incrementAndGet();
+        pendingProducts.add(newProduct);
+        schedulePublish();
+        return id;
+    }
+
+    /**
+     * function to wait until every item queued so far has been added to the inventory
+     * Must not be called on the publisher thread, which would wait on itself
+     * @throws InterruptedException
+     */
+    public void awaitPublished() throws InterruptedException {
+        long target = queued.get();
+        synchronized (this) {
+            while(published < target){
+                wait();
+            }
+        }
+    }
+
+    /**
+     * function to schedule a batch unless one is already waiting
+     */
+    private void schedulePublish(){
+        if(publishScheduled.compareAndSet(false, true)){
+            publisher.execute(this::publish);
+        }
+    }
+
+    /**
+     * function to add every queued item to the inventory
+     * Runs on the publisher thread; items queued while it runs are picked up by the next batch
+     * Products are taken first so the parts queued before them are always in the same or an earlier batch
+     */
+    private void publish(){
+        publishScheduled.set(false);
+        List<Product> products = new ArrayList<>();
+        for(Product product = pendingProducts.poll(); product != null; product = pendingProducts.poll()){
+            products.add(product);
+        }
+        List<Part> parts = new ArrayList<>();
+        for(Part part = pendingParts.poll(); part != null; part = pendingParts.poll()){
+            parts.add(part);
+        }
+        try {
+            Inventory.addAllParts(parts);
+            Inventory.addAllProducts(products);
+        } finally {
+            synchronized (this) {
+                published += parts.size() + products.size();
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package model;
+
+import javafx.collections.ObservableList;
+
+import java.util.List;
+
+/**
+ * Inventory operations used by the screens, without any user interface
+ * Owns the validation rules, id assignment and how parts and products are modified
+ * Can be used headless, for example by batch jobs and benchmarks
+ * @author Andre Simmons
+ */
+public class InventoryService {
+
+    /**
+     * Most changes that can be undone
+     */
+    private static final int UNDO_LIMIT = 10_000;
+
+    /**
+     * Undo and redo history of the changes made through this service
+     */
+    private static final UndoHistory history = new UndoHistory(UNDO_LIMIT);
+
+    /**
+     * history get function
+     * @return undo and redo history of the changes made through this service
+     */
+    public static UndoHistory getHistory(){return history;}
+
+    /**
+     * function to undo the newest change made through this service
+     * @return true if a change was undone
+     */
+    public static boolean undo(){return history.undo();}
+
+    /**
+     * function to redo the newest undone change
+     * @return true if a change was redone
+     */
+    public static boolean redo(){return history.redo();}
+
+    /**
+     * function to check the fields shared by parts and products
+     * Name must not be empty, Min must be greater than 0 and less than Max, Inventory must be between Min and Max
+     * @param name
+     * @param stock
+     * @param min
+     * @param max
+     * @throws ValidationException
+     */
+    public static void validate(String name, int stock, int min, int max) throws ValidationException {
+        if(name == null || name.isEmpty()){
+            throw new ValidationException(ValidationException.Reason.NAME_EMPTY,
+                    "Name field cannot be empty.");
+        }
+        if(min <= 0 || min >= max){
+            throw new ValidationException(ValidationException.Reason.MIN_INVALID,
+                    "Min must be a number greater than 0 and less than Max.");
+        }
+        if(stock < min || stock > max){
+            throw new ValidationException(ValidationException.Reason.INVENTORY_INVALID,
+                    "Inventory must be a number equal to or between Min and Max.");
+        }
+    }
+
+    /**
+     * function to read a machine id typed by the user
+     * @param machineId
+     * @return machine id
+     * @throws ValidationException
+     */
+    public static int parseMachineId(String machineId) throws ValidationException {
+        try {
+            return Integer.parseInt(machineId.trim());
+        } catch (RuntimeException e) {
+            throw new ValidationException(ValidationException.Reason.MACHINE_ID_INVALID,
+                    "Machine ID may only contain numbers.");
+        }
+    }
+
+    /**
+     * function to add a new In-House part with a new part id
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param machineId
+     * @return added part
+     * @throws ValidationException
+     */
+    public static InHouse addInHousePart(String name, double price, int stock, int min, int max,
+                                         String machineId) throws ValidationException {
+        validate(name, stock, min, max);
+        InHouse newPart = new InHouse(0, name, price, stock, min, max, parseMachineId(machineId));
+        newPart.setId(Inventory.getNewPartId());
+        Inventory.addPart(newPart);
+        history.partAdded(newPart);
+        return newPart;
+    }
+
+    /**
+     * function to add a new Outsourced part with a new part id
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param companyName
+     * @return added part
+     * @throws ValidationException
+     */
+    public static Outsourced addOutsourcedPart(String name, double price, int stock, int min, int max,
+                                               String companyName) throws ValidationException {
+        validate(name, stock, min, max);
+        Outsourced newPart = new Outsourced(0, name, price, stock, min, max, companyName);
+        newPart.setId(Inventory.getNewPartId());
+        Inventory.addPart(newPart);
+        history.partAdded(newPart);
+        return newPart;
+    }
+
+    /**
+     * function to replace a part with an In-House part that keeps its id
+     * @param oldPart
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param machineId
+     * @return new part
+     * @throws ValidationException
+     */
+    public static InHouse modifyInHousePart(Part oldPart, String name, double price, int stock, int min, int max,
+                                            String machineId) throws ValidationException {
+        validate(name, stock, min, max);
+        InHouse newPart = new InHouse(oldPart.getId(), name, price, stock, min, max, parseMachineId(machineId));
+        replacePart(newPart);
+        return newPart;
+    }
+
+    /**
+     * function to replace a part with an Outsourced part that keeps its id
+     * @param oldPart
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param companyName
+     * @return new part
+     * @throws ValidationException
+     */
+    public static Outsourced modifyOutsourcedPart(Part oldPart, String name, double price, int stock, int min,
+                                                  int max, String companyName) throws ValidationException {
+        validate(name, stock, min, max);
+        Outsourced newPart = new Outsourced(oldPart.getId(), name, price, stock, min, max, companyName);
+        replacePart(newPart);
+        return newPart;
+    }
+
+    /**
+     * function to add a new product with a new product id
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param associatedParts
+     * @return added product
+     * @throws ValidationException
+     */
+    public static Product addProduct(String name, double price, int stock, int min, int max,
+                                     PartQuantities associatedParts) throws ValidationException {
+        validate(name, stock, min, max);
+        Product newProduct = new Product(0, name, price, stock, min, max);
+        addAssociatedParts(newProduct, associatedParts);
+        newProduct.setId(Inventory.getNewProductId());
+        Inventory.addProduct(newProduct);
+        history.productAdded(newProduct);
+        return newProduct;
+    }
+
+    /**
+     * function to replace a product with a new product that keeps its id
+     * @param oldProduct
+     * @param name
+     * @param price
+     * @param stock
+     * @param min
+     * @param max
+     * @param associatedParts
+     * @return new product
+     * @throws ValidationException
+     */
+    public static Product modifyProduct(Product oldProduct, String name, double price, int stock, int min, int max,
+                                        PartQuantities associatedParts) throws ValidationException {
+        validate(name, stock, min, max);
+        Product newProduct = new Product(oldProduct.getId(), name, price, stock, min, max);
+        addAssociatedParts(newProduct, associatedParts);
+        PartQuantities subAssemblies = oldProduct.getSubAssemblies();
+        for(int i = 0; i < subAssemblies.size(); i++){
+            newProduct.addSubAssembly(subAssemblies.partId(i), subAssemblies.quantity(i));
+        }
+        Product replacedProduct = Inventory.replaceProduct(newProduct);
+        if(replacedProduct == null){
+            Inventory.addProduct(newProduct);
+            history.productAdded(newProduct);
+        } else {
+            history.productReplaced(replacedProduct, newProduct);
+        }
+        return newProduct;
+    }
+
+    /**
+     * function to delete a part
+     * @param selectedPart
+     * @return true if the part was in the inventory
+     */
+    public static boolean deletePart(Part selectedPart){
+        int row = Inventory.partRow(selectedPart);
+        if(!Inventory.deletePart(selectedPart)){
+            return false;
+        }
+        history.partDeleted(row, selectedPart);
+        return true;
+    }
+
+    /**
+     * function to delete a part and remove it from every product that uses it
+     * @param selectedPart
+     * @return true if the part was in the inventory
+     */
+    public static boolean deletePartAndAssociations(Part selectedPart){
+        List<Product> products = Inventory.getProductsUsingPart(selectedPart);
+        int[] quantities = new int[products.size()];
+        for(int i = 0; i < quantities.length; i++){
+            quantities[i] = products.get(i).getAssociatedPartQuantity(selectedPart.getId());
+        }
+        int row = Inventory.partRow(selectedPart);
+        Inventory.deletePartFromProducts(selectedPart);
+        if(!Inventory.deletePart(selectedPart)){
+            return false;
+        }
+        history.partDeletedFromProducts(row, selectedPart, products, quantities);
+        return true;
+    }
+
+    /**
+     * function to find the products that use a part
+     * @param selectedPart
+     * @return products with the part among their associated parts
+     */
+    public static List<Product> getProductsUsingPart(Part selectedPart){
+        return Inventory.getProductsUsingPart(selectedPart);
+    }
+
+    /**
+     * function to delete a product that has no associated parts or sub-assemblies and is not built into another product
+     * @param selectedProduct
+     * @return true if the product was in the inventory
+     * @throws ValidationException
+     */
+    public static boolean deleteProduct(Product selectedProduct) throws ValidationException {
+        if(!selectedProduct.getAssociatedParts().isEmpty() || !selectedProduct.getSubAssemblies().isEmpty()){
+            throw new ValidationException(ValidationException.Reason.PRODUCT_HAS_PARTS,
+                    "All parts must be removed from product before deletion.");
+        }
+        if(!Inventory.getProductsUsingSubAssembly(selectedProduct).isEmpty()){
+            throw new ValidationException(ValidationException.Reason.PRODUCT_IN_USE,
+                    "Product is a sub-assembly of another product.");
+        }
+        int row = Inventory.productRow(selectedProduct);
+        if(!Inventory.deleteProduct(selectedProduct)){
+            return false;
+        }
+        history.productDeleted(row, selectedProduct);
+        return true;
+    }
+
+    /**
+     * function to add units of one product to another as a sub-assembly and save the change
+     * @param product
+     * @param subAssembly
+     * @param quantity
+     * @throws ValidationException
+     */
+    public static void addSubAssembly(Product product, Product subAssembly, int quantity) throws ValidationException {
+        try {
+            product.addSubAssembly(subAssembly, quantity);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ValidationException.Reason.ASSEMBLY_LOOP,
+                    "A product cannot be built from itself.");
+        }
+        Inventory.replaceProduct(product);
+        history.subAssemblyAdded(product, subAssembly.getId(), quantity);
+    }
+
+    /**
+     * function to remove units of a sub-assembly from a product and save the change
+     * @param product
+     * @param subAssembly
+     * @param quantity
+     * @return number of units removed
+     */
+    public static int deleteSubAssembly(Product product, Product subAssembly, int quantity){
+        int removed = product.deleteSubAssembly(subAssembly.getId(), quantity);
+        if(removed > 0){
+            Inventory.replaceProduct(product);
+            history.subAssemblyDeleted(product, subAssembly.getId(), removed);
+        }
+        return removed;
+    }
+
+    /**
+     * function to work out the parts needed to build units of a product, through every level of sub-assemblies
+     * @param product
+     * @param units
+     * @return total quantity of every part
+     */
+    public static BomExplosion.Requirements explodeProduct(Product product, long units){
+        return new BomExplosion().explode(product, units);
+    }
+
+    /**
+     * function to search parts by id or name
+     * @param searchString
+     * @return parts whose id or name contains the search text
+     */
+    public static ObservableList<Part> searchParts(String searchString){
+        return Inventory.searchParts(searchString);
+    }
+
+    /**
+     * function to search products by id or name
+     * @param searchString
+     * @return products whose id or name contains the search text
+     */
+    public static ObservableList<Product> searchProducts(String searchString){
+        return Inventory.searchProducts(searchString);
+    }
+
+    /**
+     * function to give a new product the associated parts and quantities that are still in the inventory
+     * @param newProduct
+     * @param associatedParts
+     */
+    private static void addAssociatedParts(Product newProduct, PartQuantities associatedParts){
+        for(int i = 0; i < associatedParts.size(); i++){
+            Part part = Inventory.lookupPart(associatedParts.partId(i));
+            if(part != null){
+                newProduct.addAssociatedPart(part, associatedParts.quantity(i));
+            }
+        }
+    }
+
+    /**
+     * function to put a new part in the row of the part with its id, or add it if that part is gone, and record it
+     * @param newPart
+     */
+    private static void replacePart(Part newPart){
+        Part replacedPart = Inventory.replacePart(newPart);
+        if(replacedPart == null){
+            Inventory.addPart(newPart);
+            history.partAdded(newPart);
+        } else {
+            history.partReplaced(replacedPart, newPart);
+        }
+    }
+}
@@ -0,0 +1,889 @@
+package model;
+
+import collections.IntIntMap;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the inventory to disk with a write-ahead log and compacted snapshots
+ * Every add, update and delete is appended to the log on a background thread so saving never waits on the disk
+ * After enough log records the writer thread compacts the log: it reads the latest snapshot and the log back from disk,
+ * writes them out as a new snapshot and starts the log over, so changing the inventory never copies it
+ * Snapshots use the memory-mapped MappedSnapshot format
+ * Each snapshot gets its own file, named after the last log record in it, and older ones are deleted once a newer one
+ * is in place, so a snapshot that may still be mapped is never replaced
+ * On startup the latest snapshot is read and only the log records written after it are replayed on top of it
+ * Sub-assembly links that would build a product from itself are dropped while loading
+ * If a write fails the store stops saving, drops later changes instead of queueing them and reports the failure
+ * @author Andre Simmons
+ */
+public class InventoryStore {
+
+    /**
+     * Name of the log file in the data folder
+     */
+    private static final String LOG_FILE = "inventory.log";
+
+    /**
+     * Name of the snapshot file written before snapshot files were numbered; loaded if there is no numbered snapshot
+     */
+    private static final String SNAPSHOT_FILE = "inventory.snapshot";
+
+    /**
+     * Start of the name of each snapshot file, followed by the sequence number of the last log record in it
+     */
+    private static final String SNAPSHOT_PREFIX = SNAPSHOT_FILE + ".";
+
+    /**
+     * Name of the file a snapshot is written to before it is renamed
+     */
+    private static final String SNAPSHOT_TEMPORARY_FILE = SNAPSHOT_PREFIX + "tmp";
+
+    /**
+     * Least number of log records written before the log is compacted into a snapshot
+     * An inventory with more rows than this waits for as many records as it has rows, so compacting a large
+     * inventory takes time in proportion to the changes logged rather than once every few thousand changes
+     */
+    private static final int RECORDS_PER_SNAPSHOT = 10_000;
+
+    /**
+     * Largest log record in bytes, so a corrupt length read from the log is never trusted for an allocation
+     */
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Log record that adds or replaces a part, with names in the modified UTF-8 of writeUTF
+     * Only read from older logs
+     */
+    private static final byte PUT_PART = 1;
+
+    /**
+     * Log record that deletes a part
+     */
+    private static final byte DELETE_PART = 2;
+
+    /**
+     * Log record that adds or replaces a product, with one part id for every unit of an associated part
+     * Only read from older logs
+     */
+    private static final byte PUT_PRODUCT = 3;
+
+    /**
+     * Log record that deletes a product
+     */
+    private static final byte DELETE_PRODUCT = 4;
+
+    /**
+     * Log record that adds or replaces a product, with a part id and quantity for every associated part
+     * Only read from older logs
+     */
+    private static final byte PUT_PRODUCT_QUANTITIES = 5;
+
+    /**
+     * Log record that adds or replaces a product, with part quantities followed by sub-assembly product quantities
+     * Only read from older logs
+     */
+    private static final byte PUT_PRODUCT_ASSEMBLY = 6;
+
+    /**
+     * Log record that adds or replaces a part, with names written by writeString
+     */
+    private static final byte PUT_PART_UTF8 = 7;
+
+    /**
+     * Log record that adds or replaces a product in the PUT_PRODUCT_ASSEMBLY layout, with its name written by writeString
+     */
+    private static final byte PUT_PRODUCT_UTF8 = 8;
+
+    /**
+     * Part record for a part that is neither In-House nor Outsourced
+     */
+    private static final byte PLAIN_PART = 0;
+
+    /**
+     * Part record for an In-House part
+     */
+    private static final byte IN_HOUSE_PART = 1;
+
+    /**
+     * Part record for an Outsourced part
+     */
+    private static final byte OUTSOURCED_PART = 2;
+
+    /**
+     * Part record for an Outsourced part without a company name
+     * Only read from older logs; PUT_PART_UTF8 records write a missing company name as a null string
+     */
+    private static final byte OUTSOURCED_PART_WITHOUT_COMPANY = 3;
+
+    /**
+     * Product whose sub-assemblies are still being searched for loops
+     */
+    private static final int SEARCHING = 1;
+
+    /**
+     * Product whose sub-assemblies have all been searched for loops
+     */
+    private static final int SEARCHED = 2;
+
+    /**
+     * Folder holding the log and snapshot
+     */
+    private final Path directory;
+
+    /**
+     * Records waiting for the writer thread
+     */
+    private final BlockingQueue<Object> pending = new LinkedBlockingQueue<>();
+
+    /**
+     * Thread that writes to the log
+     */
+    private final Thread writer;
+
+    /**
+     * Open log file, only used by the writer thread
+     */
+    private FileChannel log;
+
+    /**
+     * Sequence number of the last record handed to the writer
+     */
+    private long sequence;
+
+    /**
+     * Records in the log since the last snapshot, only used by the writer thread
+     */
+    private int recordsSinceSnapshot;
+
+    /**
+     * Records to log before the next snapshot, only used by the writer thread
+     */
+    private int recordsPerSnapshot = RECORDS_PER_SNAPSHOT;
+
+    /**
+     * Set once the store is closed
+     */
+    private volatile boolean closed;
+
+    /**
+     * Error that stopped the writer thread, null while changes are being saved
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Called once with the error that stopped the writer thread, may be null
+     */
+    private Consumer<Throwable> failureHandler;
+
+    /**
+     * Parts and products as they are saved on disk, read from the latest snapshot with the log records after it applied
+     * Kept by id in the order the inventory loads them, and read without looking at the inventory,
+     * so the writer thread can build a snapshot from it while the inventory is being changed
+     */
+    private static class SavedInventory {
+        private final Map<Integer, Part> parts = new LinkedHashMap<>();
+        private final Map<Integer, Product> products = new LinkedHashMap<>();
+        private long sequence;
+        private int lastPartId;
+        private int lastProductId;
+        private int logRecords;
+        private long logLength;
+    }
+
+    /**
+     * Marker that tells the writer thread to stop
+     */
+    private static final Object STOP = new Object();
+
+    /**
+     * Constructor variable for the store
+     * @param directory
+     */
+    private InventoryStore(Path directory){
+        this.directory = directory;
+        this.writer = new Thread(this::writeLoop, "inventory-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * function to open the store in a folder and load its data into the inventory
+     * The inventory must be empty; it is saved to the store from then on
+     * @param directory
+     * @return opened store
+     * @throws IOException
+     */
+    public static InventoryStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        InventoryStore store = new InventoryStore(directory);
+        SavedInventory saved = readSaved(directory);
+        Path logFile = directory.resolve(LOG_FILE);
+        if(Files.exists(logFile)){
+            try(FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)){
+                channel.truncate(saved.logLength);
+            }
+        }
+        load(saved);
+        store.sequence = saved.sequence;
+        store.recordsSinceSnapshot = saved.logRecords;
+        store.recordsPerSnapshot = snapshotInterval(saved);
+        int lastPartId = 0;
+        for(Part part : Inventory.getAllParts()){
+            lastPartId = Math.max(lastPartId, part.getId());
+        }
+        int lastProductId = 0;
+        for(Product product : Inventory.getAllProducts()){
+            lastProductId = Math.max(lastProductId, product.getId());
+        }
+        Inventory.restoreIds(lastPartId, lastProductId);
+        store.log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        store.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(store::close, "inventory-store-shutdown"));
+        Inventory.setStore(store);
+        return store;
+    }
+
+    /**
+     * function to log an added or replaced part
+     * @param part
+     */
+    void logPutPart(Part part){
+        submit(PUT_PART_UTF8, out -> writePart(out, part));
+    }
+
+    /**
+     * function to log a deleted part
+     * @param partId
+     */
+    void logDeletePart(int partId){
+        submit(DELETE_PART, out -> out.writeInt(partId));
+    }
+
+    /**
+     * function to log an added or replaced product
+     * @param product
+     */
+    void logPutProduct(Product product){
+        submit(PUT_PRODUCT_UTF8, out -> writeProduct(out, product));
+    }
+
+    /**
+     * function to log a deleted product
+     * @param productId
+     */
+    void logDeleteProduct(int productId){
+        submit(DELETE_PRODUCT, out -> out.writeInt(productId));
+    }
+
+    /**
+     * failure get function
+     * @return error that stopped the store from saving changes, or null if it is still saving them
+     */
+    public Throwable getFailure(){return failure;}
+
+    /**
+     * failure handler set function
+     * The handler is called once, on the writer thread, if the store stops saving changes
+     * It is called right away if the store has already stopped
+     * @param handler
+     */
+    public void setFailureHandler(Consumer<Throwable> handler){
+        Throwable error;
+        synchronized (this) {
+            failureHandler = handler;
+            error = failure;
+        }
+        if(error != null && handler != null){
+            handler.accept(error);
+        }
+    }
+
+    /**
+     * function to write every waiting record and stop the writer thread
+     */
+    public void close(){
+        synchronized (this) {
+            if(closed){
+                return;
+            }
+            closed = true;
+            pending.add(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the body of a log record
+     */
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * function to encode a record on the calling thread and hand it to the writer
+     * Encoding right away captures the values as they were when the change was made
+     * Nothing is queued once the store is closed or has failed
+     * @param type
+     * @param body
+     */
+    private synchronized void submit(byte type, RecordBody body){
+        if(closed || failure != null){
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(++sequence);
+            out.writeByte(type);
+            body.write(out);
+            pending.add(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writer thread loop
+     * Writes every record waiting in the queue together and syncs the log once per batch
+     * Compacts the log into a snapshot once enough records have been written
+     * Any error stops the loop and marks the store as failed
+     */
+    private void writeLoop(){
+        List<Object> batch = new ArrayList<>();
+        try {
+            while(true){
+                batch.add(pending.take());
+                pending.drainTo(batch);
+                boolean stop = false;
+                for(Object item : batch){
+                    if(item == STOP){
+                        stop = true;
+                    } else {
+                        appendRecord((byte[]) item);
+                        if(++recordsSinceSnapshot >= recordsPerSnapshot){
+                            compact();
+                        }
+                    }
+                }
+                batch.clear();
+                log.force(false);
+                if(stop){
+                    log.close();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * function to stop saving after the writer thread failed
+     * Waiting records are dropped and the failure handler is called
+     * @param error
+     */
+    private void fail(Throwable error){
+        System.err.println("Inventory changes can no longer be saved: " + error);
+        error.printStackTrace();
+        Consumer<Throwable> handler;
+        synchronized (this) {
+            failure = error;
+            pending.clear();
+            handler = failureHandler;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+        if(handler != null){
+            handler.accept(error);
+        }
+    }
+
+    /**
+     * function to append one record to the log
+     * Each record is its length, a checksum and the record bytes so a torn write at the end is ignored on replay
+     * A record larger than MAX_RECORD_SIZE could not be read back, so it fails the store instead of being written
+     * @param record
+     * @throws IOException
+     */
+    private void appendRecord(byte[] record) throws IOException {
+        if(record.length > MAX_RECORD_SIZE){
+            throw new IOException("Inventory log record of " + record.length + " bytes is too large to save");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + record.length);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record).flip();
+        while(buffer.hasRemaining()){
+            log.write(buffer);
+        }
+    }
+
+    /**
+     * function to write a snapshot and start the log over
+     * The snapshot is built from the latest snapshot and the log as they are on disk, not from the inventory
+     * It is written to a temporary file and renamed to a new file so a crash never leaves half a snapshot
+     * and no file that may still be mapped is written over
+     * The id counters are atomic, so the last ids handed out are read from the inventory
+     * @throws IOException
+     */
+    private void compact() throws IOException {
+        log.force(false);
+        SavedInventory saved = readSaved(directory);
+        Path temporary = directory.resolve(SNAPSHOT_TEMPORARY_FILE);
+        MappedSnapshot.write(temporary, saved.sequence,
+                Math.max(saved.lastPartId, Inventory.getLastPartId()),
+                Math.max(saved.lastProductId, Inventory.getLastProductId()),
+                new ArrayList<>(saved.parts.values()), new ArrayList<>(saved.products.values()));
+        Path snapshotFile = directory.resolve(SNAPSHOT_PREFIX + saved.sequence);
+        Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE);
+        log.truncate(0);
+        recordsSinceSnapshot = 0;
+        recordsPerSnapshot = snapshotInterval(saved);
+        deleteSnapshotsBefore(snapshotFile);
+    }
+
+    /**
+     * function to delete every snapshot file in the folder but the latest one
+     * A file that cannot be deleted yet, such as one that is still mapped on Windows, is tried again after the next snapshot
+     * @param latest
+     */
+    private void deleteSnapshotsBefore(Path latest){
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, SNAPSHOT_FILE + "*")){
+            for(Path file : files){
+                if(!file.equals(latest)){
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // still in use, left for the next snapshot
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // the snapshot is written; old files are only cleaned up
+        }
+    }
+
+    /**
+     * function to map the latest snapshot in a folder without loading it
+     * Its rows can be shown while the store is being opened; changes logged after the snapshot are not in it
+     * @param directory
+     * @return mapped snapshot, or null if the folder has no snapshot
+     * @throws IOException
+     */
+    public static MappedSnapshot openLatestSnapshot(Path directory) throws IOException {
+        Path snapshotFile = Files.isDirectory(directory) ? latestSnapshot(directory) : null;
+        return snapshotFile == null ? null : MappedSnapshot.open(snapshotFile);
+    }
+
+    /**
+     * function to find the latest snapshot file in a folder
+     * @param directory
+     * @return numbered snapshot file with the highest sequence number, the unnumbered snapshot file if there is none,
+     * or null if there is no snapshot
+     * @throws IOException
+     */
+    static Path latestSnapshot(Path directory) throws IOException {
+        Path latest = null;
+        long latestSequence = -1;
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*")){
+            for(Path file : files){
+                String suffix = file.getFileName().toString().substring(SNAPSHOT_PREFIX.length());
+                if(suffix.isEmpty() || suffix.length() > 18 || !suffix.chars().allMatch(c -> c >= '0' && c <= '9')){
+                    continue;
+                }
+                long sequence = Long.parseLong(suffix);
+                if(sequence > latestSequence){
+                    latestSequence = sequence;
+                    latest = file;
+                }
+            }
+        }
+        if(latest == null && Files.exists(directory.resolve(SNAPSHOT_FILE))){
+            latest = directory.resolve(SNAPSHOT_FILE);
+        }
+        return latest;
+    }
+
+    /**
+     * function to work out how many records to log before the next snapshot
+     * @param saved
+     * @return RECORDS_PER_SNAPSHOT, or the number of saved parts and products if that is larger
+     */
+    private static int snapshotInterval(SavedInventory saved){
+        return Math.max(RECORDS_PER_SNAPSHOT, saved.parts.size() + saved.products.size());
+    }
+
+    /**
+     * function to read the latest snapshot and the log records written after it
+     * Every row is decoded, so reading takes time in proportion to the size of the inventory
+     * @param directory
+     * @return saved parts and products
+     * @throws IOException
+     */
+    private static SavedInventory readSaved(Path directory) throws IOException {
+        SavedInventory saved = new SavedInventory();
+        Path snapshotFile = latestSnapshot(directory);
+        if(snapshotFile != null){
+            MappedSnapshot snapshot = MappedSnapshot.open(snapshotFile);
+            saved.sequence = snapshot.getSequence();
+            saved.lastPartId = snapshot.getLastPartId();
+            saved.lastProductId = snapshot.getLastProductId();
+            for(int row = 0; row < snapshot.getPartCount(); row++){
+                Part part = snapshot.part(row);
+                saved.parts.put(part.getId(), part);
+            }
+            for(int row = 0; row < snapshot.getProductCount(); row++){
+                Product product = snapshot.product(row);
+                saved.products.put(product.getId(), product);
+            }
+        }
+        Path logFile = directory.resolve(LOG_FILE);
+        if(Files.exists(logFile)){
+            readLog(logFile, saved);
+        }
+        return saved;
+    }
+
+    /**
+     * function to load saved parts and products into the empty inventory
+     * Associated parts that are not in the inventory are dropped, and so are sub-assembly links that would
+     * build a product from itself
+     * @param saved
+     */
+    private static void load(SavedInventory saved){
+        Inventory.restoreIds(saved.lastPartId, saved.lastProductId);
+        Inventory.addAllParts(saved.parts.values());
+        List<Product> products = new ArrayList<>(saved.products.values());
+        for(Product product : products){
+            PartQuantities associatedParts = product.getAssociatedParts();
+            for(int i = associatedParts.size() - 1; i >= 0; i--){
+                if(Inventory.lookupPart(associatedParts.partId(i)) == null){
+                    associatedParts.remove(associatedParts.partId(i), associatedParts.quantity(i));
+                }
+            }
+        }
+        Inventory.addAllProducts(products);
+        dropAssemblyLoops(products);
+    }
+
+    /**
+     * Product being searched and the position of its next sub-assembly
+     */
+    private static class AssemblyVisit {
+        private final Product product;
+        private int next;
+
+        private AssemblyVisit(Product product){
+            this.product = product;
+        }
+    }
+
+    /**
+     * function to remove the sub-assembly links that build a product from itself
+     * Searches the sub-assemblies depth first and drops every link back to a product still being searched,
+     * which leaves no loops in time in proportion to the number of products and links
+     * @param products
+     */
+    private static void dropAssemblyLoops(List<Product> products){
+        IntIntMap states = new IntIntMap(products.size());
+        List<Product> loopProducts = new ArrayList<>();
+        List<Integer> loopSubAssemblies = new ArrayList<>();
+        Deque<AssemblyVisit> path = new ArrayDeque<>();
+        for(Product root : products){
+            if(states.get(root.getId()) != 0){
+                continue;
+            }
+            states.put(root.getId(), SEARCHING);
+            path.push(new AssemblyVisit(root));
+            while(!path.isEmpty()){
+                AssemblyVisit visit = path.peek();
+                PartQuantities subAssemblies = visit.product.getSubAssemblies();
+                if(visit.next == subAssemblies.size()){
+                    states.put(visit.product.getId(), SEARCHED);
+                    path.pop();
+                    continue;
+                }
+                int subAssemblyId = subAssemblies.partId(visit.next++);
+                int state = states.get(subAssemblyId);
+                if(state == SEARCHING){
+                    loopProducts.add(visit.product);
+                    loopSubAssemblies.add(subAssemblyId);
+                } else if(state == 0){
+                    Product subAssembly = Inventory.lookupProduct(subAssemblyId);
+                    if(subAssembly != null){
+                        states.put(subAssemblyId, SEARCHING);
+                        path.push(new AssemblyVisit(subAssembly));
+                    }
+                }
+            }
+        }
+        for(int i = 0; i < loopProducts.size(); i++){
+            Product product = loopProducts.get(i);
+            product.deleteSubAssembly(loopSubAssemblies.get(i), Integer.MAX_VALUE);
+            System.err.println("Dropped sub-assembly " + loopSubAssemblies.get(i) + " from product " + product.getId()
+                    + " because it would build the product from itself");
+        }
+    }
+
+    /**
+     * function to apply the log records written after the snapshot to the saved parts and products
+     * Stops at the first torn or corrupt record, which can only be the last one written before a crash
+     * A length longer than the rest of the file or than MAX_RECORD_SIZE is taken as the end of the log
+     * @param logFile
+     * @param saved
+     * @throws IOException
+     */
+    private static void readLog(Path logFile, SavedInventory saved) throws IOException {
+        long snapshotSequence = saved.sequence;
+        long fileSize = Files.size(logFile);
+        try(InputStream stream = new BufferedInputStream(Files.newInputStream(logFile));
+            DataInputStream in = new DataInputStream(stream)){
+            while(true){
+                int length;
+                int checksum;
+                byte[] record;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if(length <= 0 || length > MAX_RECORD_SIZE || length > fileSize - saved.logLength - 8){
+                        break;
+                    }
+                    record = new byte[length];
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if((int) crc.getValue() != checksum){
+                    break;
+                }
+                saved.logLength += 8 + length;
+
+                DataInputStream body = new DataInputStream(new ByteArrayInputStream(record));
+                long recordSequence = body.readLong();
+                if(recordSequence <= snapshotSequence){
+                    continue;
+                }
+                applyRecord(body.readByte(), body, saved);
+                saved.sequence = recordSequence;
+                saved.logRecords++;
+            }
+        }
+    }
+
+    /**
+     * function to apply one log record to the saved parts and products
+     * A part or product that is put again keeps its place, the same way the inventory replaces it in its row
+     * @param type
+     * @param in
+     * @param saved
+     * @throws IOException
+     */
+    private static void applyRecord(byte type, DataInputStream in, SavedInventory saved) throws IOException {
+        switch (type) {
+            case PUT_PART:
+            case PUT_PART_UTF8:
+                Part part = readPart(in, type);
+                saved.parts.put(part.getId(), part);
+                break;
+            case DELETE_PART:
+                saved.parts.remove(in.readInt());
+                break;
+            case PUT_PRODUCT:
+            case PUT_PRODUCT_QUANTITIES:
+            case PUT_PRODUCT_ASSEMBLY:
+            case PUT_PRODUCT_UTF8:
+                Product product = readProduct(in, type);
+                saved.products.put(product.getId(), product);
+                break;
+            case DELETE_PRODUCT:
+                saved.products.remove(in.readInt());
+                break;
+            default:
+                throw new IOException("Unknown inventory log record " + type);
+        }
+    }
+
+    /**
+     * function to write a part record in the PUT_PART_UTF8 layout
+     * @param out
+     * @param part
+     * @throws IOException
+     */
+    private static void writePart(DataOutputStream out, Part part) throws IOException {
+        if(part instanceof InHouse){
+            out.writeByte(IN_HOUSE_PART);
+        } else if(part instanceof Outsourced){
+            out.writeByte(OUTSOURCED_PART);
+        } else {
+            out.writeByte(PLAIN_PART);
+        }
+        out.writeInt(part.getId());
+        writeString(out, part.getName());
+        out.writeDouble(part.getPrice());
+        out.writeInt(part.getStock());
+        out.writeInt(part.getMin());
+        out.writeInt(part.getMax());
+        if(part instanceof InHouse){
+            out.writeInt(((InHouse) part).getMachineId());
+        } else if(part instanceof Outsourced){
+            writeString(out, ((Outsourced) part).getCompanyName());
+        }
+    }
+
+    /**
+     * function to read a part record
+     * @param in
+     * @param type record type, which decides how names are written
+     * @return part
+     * @throws IOException
+     */
+    private static Part readPart(DataInputStream in, byte type) throws IOException {
+        boolean utf8 = type == PUT_PART_UTF8;
+        byte kind = in.readByte();
+        int id = in.readInt();
+        String name = utf8 ? readString(in) : in.readUTF();
+        double price = in.readDouble();
+        int stock = in.readInt();
+        int min = in.readInt();
+        int max = in.readInt();
+        switch (kind) {
+            case IN_HOUSE_PART:
+                return new InHouse(id, name, price, stock, min, max, in.readInt());
+            case OUTSOURCED_PART:
+                return new Outsourced(id, name, price, stock, min, max, utf8 ? readString(in) : in.readUTF());
+            case OUTSOURCED_PART_WITHOUT_COMPANY:
+                return new Outsourced(id, name, price, stock, min, max, null);
+            default:
+                return new Part(id, name, price, stock, min, max);
+        }
+    }
+
+    /**
+     * function to write a product record in the PUT_PRODUCT_UTF8 layout
+     * Associated parts and sub-assemblies are written as ids and quantities
+     * @param out
+     * @param product
+     * @throws IOException
+     */
+    private static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        out.writeInt(product.getId());
+        writeString(out, product.getName());
+        out.writeDouble(product.getPrice());
+        out.writeInt(product.getStock());
+        out.writeInt(product.getMin());
+        out.writeInt(product.getMax());
+        PartQuantities associatedParts = product.getAssociatedParts();
+        out.writeInt(associatedParts.size());
+        for(int i = 0; i < associatedParts.size(); i++){
+            out.writeInt(associatedParts.partId(i));
+            out.writeInt(associatedParts.quantity(i));
+        }
+        PartQuantities subAssemblies = product.getSubAssemblies();
+        out.writeInt(subAssemblies.size());
+        for(int i = 0; i < subAssemblies.size(); i++){
+            out.writeInt(subAssemblies.partId(i));
+            out.writeInt(subAssemblies.quantity(i));
+        }
+    }
+
+    /**
+     * function to read a product record
+     * Associated part and sub-assembly ids are kept as they were written; load drops the ones that no longer apply
+     * @param in
+     * @param type record type, which decides whether quantities and sub-assemblies are present and how the name is written
+     * @return product
+     * @throws IOException
+     */
+    private static Product readProduct(DataInputStream in, byte type) throws IOException {
+        boolean withQuantities = type != PUT_PRODUCT;
+        Product product = new Product(in.readInt(), type == PUT_PRODUCT_UTF8 ? readString(in) : in.readUTF(),
+                in.readDouble(), in.readInt(), in.readInt(), in.readInt());
+        int partCount = in.readInt();
+        for(int i = 0; i < partCount; i++){
+            int partId = in.readInt();
+            product.getAssociatedParts().add(partId, withQuantities ? in.readInt() : 1);
+        }
+        if(type == PUT_PRODUCT_ASSEMBLY || type == PUT_PRODUCT_UTF8){
+            int subAssemblyCount = in.readInt();
+            for(int i = 0; i < subAssemblyCount; i++){
+                int subAssemblyId = in.readInt();
+                product.getSubAssemblies().add(subAssemblyId, in.readInt());
+            }
+        }
+        return product;
+    }
+
+    /**
+     * function to write a string as its length in UTF-8 bytes followed by the bytes, or a length of -1 for null
+     * Unlike writeUTF it takes null and strings of any length
+     * @param out
+     * @param value
+     * @throws IOException
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if(value == null){
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * function to read a string written by writeString
+     * @param in record body
+     * @return string, or null if it was written as null
+     * @throws IOException if the length is not -1 and does not fit in the rest of the record
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length == -1){
+            return null;
+        }
+        if(length < 0 || length > in.available()){
+            throw new IOException("Corrupt string in inventory log record");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,195 @@
+package model;
+
+import collections.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps running totals of the value of the parts in the inventory, price times stock,
+ * by part type, by outsourced company name and by in-house machine id
+ * The inventory adds or subtracts a part's value on every change, so reading a total takes constant time
+ *
+ * Values are added up in whole cents so totals do not drift after many changes
+ * @author Andre Simmons
+ */
+public class InventoryValuation {
+
+    /**
+     * Value and part count of one company or machine
+     */
+    private static class Group {
+        private long cents;
+        private int parts;
+    }
+
+    /**
+     * Value of every part, in cents
+     */
+    private long totalCents;
+
+    /**
+     * Value of the in-house parts, in cents
+     */
+    private long inHouseCents;
+
+    /**
+     * Value of the outsourced parts, in cents
+     */
+    private long outsourcedCents;
+
+    /**
+     * Value of the outsourced parts of each company, by company name
+     */
+    private final Map<String, Group> companies = new HashMap<>();
+
+    /**
+     * Value of the in-house parts made on each machine, by machine id
+     */
+    private final IntObjectMap<Group> machines = new IntObjectMap<>();
+
+    /**
+     * Called after a part's value is added to or taken out of the totals
+     */
+    private final List<Runnable> listeners = new ArrayList<>();
+
+    /**
+     * function to add a listener called after a part's value is added to or taken out of the totals
+     * Listeners run on the thread that changed the inventory
+     * @param listener
+     */
+    public void addListener(Runnable listener){listeners.add(listener);}
+
+    /**
+     * total value get function
+     * @return value of every part in the inventory
+     */
+    public double getTotalValue(){return totalCents / 100.0;}
+
+    /**
+     * in-house value get function
+     * @return value of the in-house parts
+     */
+    public double getInHouseValue(){return inHouseCents / 100.0;}
+
+    /**
+     * outsourced value get function
+     * @return value of the outsourced parts
+     */
+    public double getOutsourcedValue(){return outsourcedCents / 100.0;}
+
+    /**
+     * function to get the value of the parts from one company
+     * @param companyName
+     * @return value of the company's outsourced parts, 0 if it has none
+     */
+    public double getCompanyValue(String companyName){
+        Group group = companies.get(companyName);
+        return group == null ? 0 : group.cents / 100.0;
+    }
+
+    /**
+     * function to get the value of the parts made on one machine
+     * @param machineId
+     * @return value of the machine's in-house parts, 0 if it has none
+     */
+    public double getMachineValue(int machineId){
+        Group group = machines.get(machineId);
+        return group == null ? 0 : group.cents / 100.0;
+    }
+
+    /**
+     * company count get function
+     * @return number of companies with outsourced parts in the inventory
+     */
+    public int getCompanyCount(){return companies.size();}
+
+    /**
+     * machine count get function
+     * @return number of machines with in-house parts in the inventory
+     */
+    public int getMachineCount(){return machines.size();}
+
+    /**
+     * function to list the value of every company
+     * Takes time in proportion to the number of companies
+     * @return value of each company's outsourced parts, by company name, with parts without a company under null
+     */
+    public Map<String, Double> getCompanyValues(){
+        Map<String, Double> values = new HashMap<>();
+        for(Map.Entry<String, Group> entry : companies.entrySet()){
+            values.put(entry.getKey(), entry.getValue().cents / 100.0);
+        }
+        return values;
+    }
+
+    /**
+     * function to list the value of every machine
+     * Takes time in proportion to the number of machines
+     * @return value of each machine's in-house parts, by machine id
+     */
+    public Map<Integer, Double> getMachineValues(){
+        Map<Integer, Double> values = new HashMap<>();
+        machines.forEach((group, machineId) -> values.put(machineId, group.cents / 100.0));
+        return values;
+    }
+
+    /**
+     * function to add a part's value to the totals
+     * @param part
+     */
+    void add(Part part){change(part, 1);}
+
+    /**
+     * function to take a part's value out of the totals
+     * @param part
+     */
+    void remove(Part part){change(part, -1);}
+
+    /**
+     * function to add or take out a part's value
+     * @param part
+     * @param sign 1 to add, -1 to take out
+     */
+    private void change(Part part, int sign){
+        long cents = sign * Math.round(part.getPrice() * 100) * part.getStock();
+        totalCents += cents;
+        if(part instanceof InHouse){
+            inHouseCents += cents;
+            int machineId = ((InHouse) part).getMachineId();
+            Group group = machines.get(machineId);
+            if(group == null){
+                group = new Group();
+                machines.put(machineId, group);
+            }
+            if(changeGroup(group, cents, sign)){
+                machines.remove(machineId);
+            }
+        } else if(part instanceof Outsourced){
+            outsourcedCents += cents;
+            String companyName = ((Outsourced) part).getCompanyName();
+            Group group = companies.computeIfAbsent(companyName, name -> new Group());
+            if(changeGroup(group, cents, sign)){
+                companies.remove(companyName);
+            }
+        }
+        for(Runnable listener : listeners){
+            listener.run();
+        }
+    }
+
+    /**
+     * function to add or take out a part's value from a group
+     * @param group
+     * @param cents
+     * @param sign
+     * @return true if the group has no parts left
+     */
+    private static boolean changeGroup(Group group, long cents, int sign){
+        group.cents += cents;
+        group.parts += sign;
+        return group.parts <= 0;
+    }
+}
@@ -0,0 +1,486 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary inventory snapshot that is read through a memory-mapped file
+ * Parts and products are stored as fixed-width records so any row can be decoded by position without reading the rest
+ * partRows and productRows let a table decode only the rows it shows
+ * Names and company names are stored once in a string table and records point to them by number, or hold -1 for null
+ * Product associated parts are stored as runs of part id and quantity pairs in an adjacency section
+ * Sub-assemblies are stored in the same run with the product id negated
+ * Version 1 files, with one part id per unit and no quantities, and version 2 files without sub-assemblies can still be read
+ *
+ * Files are written with plain channel writes and only mapped read-only for loading, so a written file is never
+ * left mapped for writing and can be renamed straight away
+ *
+ * Layout: header, string offsets, string bytes, part records, product records, adjacency part ids and quantities
+ * @author Andre Simmons
+ */
+public class MappedSnapshot {
+
+    /**
+     * First bytes of every snapshot file
+     */
+    private static final int MAGIC = 0x494E5632;
+
+    /**
+     * Version of the snapshot layout
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * Version of the layout without sub-assemblies
+     */
+    private static final int VERSION_WITHOUT_ASSEMBLIES = 2;
+
+    /**
+     * Version of the layout with one adjacency part id per unit of an associated part
+     */
+    private static final int VERSION_WITHOUT_QUANTITIES = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * Size of a part record in bytes: price, id, name, stock, min, max, machine id or company name, kind
+     */
+    private static final int PART_RECORD_SIZE = 36;
+
+    /**
+     * Size of a product record in bytes: price, id, name, stock, min, max, adjacency start, adjacency count
+     */
+    private static final int PRODUCT_RECORD_SIZE = 36;
+
+    /**
+     * Part record kind for a part that is neither In-House nor Outsourced
+     */
+    private static final int PLAIN_PART = 0;
+
+    /**
+     * Part record kind for an In-House part
+     */
+    private static final int IN_HOUSE_PART = 1;
+
+    /**
+     * Part record kind for an Outsourced part
+     */
+    private static final int OUTSOURCED_PART = 2;
+
+    /**
+     * Size of the buffer records are gathered in before they are written to the file
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Mapped snapshot file
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Sequence number of the last log record in the snapshot
+     */
+    private final long sequence;
+
+    /**
+     * Last part id handed out when the snapshot was written
+     */
+    private final int lastPartId;
+
+    /**
+     * Last product id handed out when the snapshot was written
+     */
+    private final int lastProductId;
+
+    /**
+     * Number of strings in the string table
+     */
+    private final int stringCount;
+
+    /**
+     * Number of part records
+     */
+    private final int partCount;
+
+    /**
+     * Number of product records
+     */
+    private final int productCount;
+
+    /**
+     * Start of the string offsets
+     */
+    private final int stringOffsetsStart;
+
+    /**
+     * Start of the string bytes
+     */
+    private final int stringBytesStart;
+
+    /**
+     * Start of the part records
+     */
+    private final int partsStart;
+
+    /**
+     * Start of the product records
+     */
+    private final int productsStart;
+
+    /**
+     * Start of the adjacency part ids
+     */
+    private final int adjacencyStart;
+
+    /**
+     * True if every adjacency part id is followed by a quantity
+     */
+    private final boolean withQuantities;
+
+    /**
+     * Strings decoded so far, so each one is decoded and allocated only once
+     */
+    private final String[] strings;
+
+    /**
+     * Constructor variable for a mapped snapshot
+     * @param buffer
+     * @throws IOException
+     */
+    private MappedSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if(buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) < VERSION_WITHOUT_QUANTITIES || buffer.getInt(4) > VERSION){
+            throw new IOException("Not an inventory snapshot");
+        }
+        withQuantities = buffer.getInt(4) >= VERSION_WITHOUT_ASSEMBLIES;
+        sequence = buffer.getLong(8);
+        lastPartId = buffer.getInt(16);
+        lastProductId = buffer.getInt(20);
+        stringCount = buffer.getInt(24);
+        partCount = buffer.getInt(28);
+        productCount = buffer.getInt(32);
+        stringOffsetsStart = HEADER_SIZE;
+        stringBytesStart = buffer.getInt(36);
+        partsStart = buffer.getInt(40);
+        productsStart = buffer.getInt(44);
+        adjacencyStart = buffer.getInt(48);
+        strings = new String[stringCount];
+    }
+
+    /**
+     * function to map a snapshot file
+     * Nothing but the header is read until rows are asked for
+     * @param file
+     * @return mapped snapshot
+     * @throws IOException
+     */
+    public static MappedSnapshot open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("Snapshot too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedSnapshot(buffer);
+        }
+    }
+
+    /**
+     * function to write a snapshot file
+     * @param file
+     * @param sequence
+     * @param lastPartId
+     * @param lastProductId
+     * @param parts
+     * @param products
+     * @throws IOException
+     */
+    public static void write(Path file, long sequence, int lastPartId, int lastProductId,
+                             List<Part> parts, List<Product> products) throws IOException {
+        Map<String, Integer> stringNumbers = new HashMap<>();
+        List<byte[]> stringBytes = new ArrayList<>();
+        int adjacencyCount = 0;
+        for(Part part : parts){
+            intern(part.getName(), stringNumbers, stringBytes);
+            if(part instanceof Outsourced){
+                intern(((Outsourced) part).getCompanyName(), stringNumbers, stringBytes);
+            }
+        }
+        for(Product product : products){
+            intern(product.getName(), stringNumbers, stringBytes);
+            adjacencyCount += product.getAssociatedParts().size() + product.getSubAssemblies().size();
+        }
+
+        long stringBytesSize = 0;
+        for(byte[] bytes : stringBytes){
+            stringBytesSize += bytes.length;
+        }
+        long stringBytesStart = HEADER_SIZE + 4L * (stringBytes.size() + 1);
+        long partsStart = stringBytesStart + stringBytesSize;
+        long productsStart = partsStart + (long) PART_RECORD_SIZE * parts.size();
+        long adjacencyStart = productsStart + (long) PRODUCT_RECORD_SIZE * products.size();
+        long fileSize = adjacencyStart + 8L * adjacencyCount;
+        if(fileSize > Integer.MAX_VALUE){
+            throw new IOException("Inventory too large for one snapshot file");
+        }
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            out.putInt(MAGIC).putInt(VERSION).putLong(sequence).putInt(lastPartId).putInt(lastProductId)
+                    .putInt(stringBytes.size()).putInt(parts.size()).putInt(products.size())
+                    .putInt((int) stringBytesStart).putInt((int) partsStart)
+                    .putInt((int) productsStart).putInt((int) adjacencyStart);
+
+            out.position(HEADER_SIZE);
+            int stringOffset = 0;
+            for(byte[] bytes : stringBytes){
+                room(channel, out, 4).putInt(stringOffset);
+                stringOffset += bytes.length;
+            }
+            room(channel, out, 4).putInt(stringOffset);
+            for(byte[] bytes : stringBytes){
+                if(bytes.length > out.capacity()){
+                    drain(channel, out);
+                    ByteBuffer whole = ByteBuffer.wrap(bytes);
+                    while(whole.hasRemaining()){
+                        channel.write(whole);
+                    }
+                } else {
+                    room(channel, out, bytes.length).put(bytes);
+                }
+            }
+
+            for(Part part : parts){
+                int kind = PLAIN_PART;
+                int extra = 0;
+                if(part instanceof InHouse){
+                    kind = IN_HOUSE_PART;
+                    extra = ((InHouse) part).getMachineId();
+                } else if(part instanceof Outsourced){
+                    kind = OUTSOURCED_PART;
+                    extra = stringNumber(((Outsourced) part).getCompanyName(), stringNumbers);
+                }
+                room(channel, out, PART_RECORD_SIZE).putDouble(part.getPrice()).putInt(part.getId()).putInt(stringNumber(part.getName(), stringNumbers))
+                        .putInt(part.getStock()).putInt(part.getMin()).putInt(part.getMax())
+                        .putInt(extra).putInt(kind);
+            }
+
+            int adjacency = 0;
+            for(Product product : products){
+                int associatedCount = product.getAssociatedParts().size() + product.getSubAssemblies().size();
+                room(channel, out, PRODUCT_RECORD_SIZE).putDouble(product.getPrice()).putInt(product.getId()).putInt(stringNumber(product.getName(), stringNumbers))
+                        .putInt(product.getStock()).putInt(product.getMin()).putInt(product.getMax())
+                        .putInt(adjacency).putInt(associatedCount);
+                adjacency += associatedCount;
+            }
+            for(Product product : products){
+                PartQuantities associatedParts = product.getAssociatedParts();
+                for(int i = 0; i < associatedParts.size(); i++){
+                    room(channel, out, 8).putInt(associatedParts.partId(i)).putInt(associatedParts.quantity(i));
+                }
+                PartQuantities subAssemblies = product.getSubAssemblies();
+                for(int i = 0; i < subAssemblies.size(); i++){
+                    room(channel, out, 8).putInt(-subAssemblies.partId(i)).putInt(subAssemblies.quantity(i));
+                }
+            }
+            drain(channel, out);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * function to make room in the write buffer, writing out what it holds if the next bytes do not fit
+     * @param channel
+     * @param out
+     * @param bytes number of bytes about to be put
+     * @return write buffer
+     * @throws IOException
+     */
+    private static ByteBuffer room(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if(out.remaining() < bytes){
+            drain(channel, out);
+        }
+        return out;
+    }
+
+    /**
+     * function to write out everything put in a buffer and clear it
+     * @param channel
+     * @param out
+     * @throws IOException
+     */
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while(out.hasRemaining()){
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * sequence get function
+     * @return sequence number of the last log record in the snapshot
+     */
+    public long getSequence(){return sequence;}
+
+    /**
+     * last part id get function
+     * @return last part id handed out when the snapshot was written
+     */
+    public int getLastPartId(){return lastPartId;}
+
+    /**
+     * last product id get function
+     * @return last product id handed out when the snapshot was written
+     */
+    public int getLastProductId(){return lastProductId;}
+
+    /**
+     * part count get function
+     * @return number of parts in the snapshot
+     */
+    public int getPartCount(){return partCount;}
+
+    /**
+     * product count get function
+     * @return number of products in the snapshot
+     */
+    public int getProductCount(){return productCount;}
+
+    /**
+     * function to decode one part record
+     * @param row
+     * @return part at the row
+     */
+    public Part part(int row){
+        int at = partsStart + row * PART_RECORD_SIZE;
+        double price = buffer.getDouble(at);
+        int id = buffer.getInt(at + 8);
+        String name = string(buffer.getInt(at + 12));
+        int stock = buffer.getInt(at + 16);
+        int min = buffer.getInt(at + 20);
+        int max = buffer.getInt(at + 24);
+        int extra = buffer.getInt(at + 28);
+        switch (buffer.getInt(at + 32)) {
+            case IN_HOUSE_PART:
+                return new InHouse(id, name, price, stock, min, max, extra);
+            case OUTSOURCED_PART:
+                return new Outsourced(id, name, price, stock, min, max, string(extra));
+            default:
+                return new Part(id, name, price, stock, min, max);
+        }
+    }
+
+    /**
+     * function to decode one product record
+     * Associated part and sub-assembly ids are kept as they were written, without looking at the inventory,
+     * so rows can be decoded on any thread; InventoryStore drops the ones that no longer apply when it loads them
+     * @param row
+     * @return product at the row
+     */
+    public Product product(int row){
+        int at = productsStart + row * PRODUCT_RECORD_SIZE;
+        Product product = new Product(buffer.getInt(at + 8), string(buffer.getInt(at + 12)), buffer.getDouble(at),
+                buffer.getInt(at + 16), buffer.getInt(at + 20), buffer.getInt(at + 24));
+        int entrySize = withQuantities ? 8 : 4;
+        int adjacency = adjacencyStart + entrySize * buffer.getInt(at + 28);
+        int associatedCount = buffer.getInt(at + 32);
+        for(int i = 0; i < associatedCount; i++){
+            int entry = adjacency + entrySize * i;
+            int id = buffer.getInt(entry);
+            int quantity = withQuantities ? buffer.getInt(entry + 4) : 1;
+            if(id < 0){
+                product.getSubAssemblies().add(-id, quantity);
+            } else {
+                product.getAssociatedParts().add(id, quantity);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * function to view the part records as table rows decoded on demand
+     * @return part row source
+     */
+    public RowSource<Part> partRows(){
+        return new RowSource<Part>() {
+            @Override
+            public int size(){return partCount;}
+
+            @Override
+            public Part get(int index){return part(index);}
+        };
+    }
+
+    /**
+     * function to view the product records as table rows decoded on demand
+     * @return product row source
+     */
+    public RowSource<Product> productRows(){
+        return new RowSource<Product>() {
+            @Override
+            public int size(){return productCount;}
+
+            @Override
+            public Product get(int index){return product(index);}
+        };
+    }
+
+    /**
+     * function to decode a string from the string table, once per string
+     * @param number
+     * @return decoded string, or null if the number is -1
+     */
+    private String string(int number){
+        if(number < 0){
+            return null;
+        }
+        String decoded = strings[number];
+        if(decoded == null){
+            int start = buffer.getInt(stringOffsetsStart + 4 * number);
+            int end = buffer.getInt(stringOffsetsStart + 4 * (number + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringBytesStart + start, bytes);
+            decoded = new String(bytes, StandardCharsets.UTF_8);
+            strings[number] = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * function to add a string to the string table if it is not there yet
+     * Null is not stored; records hold -1 for it
+     * @param value
+     * @param stringNumbers
+     * @param stringBytes
+     */
+    private static void intern(String value, Map<String, Integer> stringNumbers, List<byte[]> stringBytes){
+        if(value != null && !stringNumbers.containsKey(value)){
+            stringNumbers.put(value, stringBytes.size());
+            stringBytes.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * function to find the number of a string in the string table
+     * @param value
+     * @param stringNumbers
+     * @return string number, or -1 for null
+     */
+    private static int stringNumber(String value, Map<String, Integer> stringNumbers){
+        return value == null ? -1 : stringNumbers.get(value);
+    }
+}
@@ -37,5 +37,11 @@ public class Outsourced extends Part{
      * Outsourced part company name set function
      * @param companyName
      */
-    public void setCompanyName(String companyName){this.companyName = companyName;}
+    public void setCompanyName(String companyName){
+        boolean inInventory = Inventory.partChanging(this);
+        this.companyName = companyName;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 }
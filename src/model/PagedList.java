@@ -0,0 +1,87 @@
+package model;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only list that builds rows from a row source one page at a time
+ * A table only reads the rows it shows, so only the visible pages are kept in memory
+ * The list never changes; a table shows new data by being given a new paged list
+ * @author Andre Simmons
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Number of rows built together
+     */
+    private static final int PAGE_SIZE = 256;
+
+    /**
+     * Number of pages kept before the least recently used page is dropped
+     */
+    private static final int MAX_PAGES = 16;
+
+    /**
+     * Source the rows are built from
+     */
+    private final RowSource<T> source;
+
+    /**
+     * Number of rows, read once so the list stays the same size
+     */
+    private final int size;
+
+    /**
+     * Recently used pages by page number, least recently used first
+     */
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * Constructor variable for the paged list
+     * @param source
+     */
+    public PagedList(RowSource<T> source){
+        this.source = source;
+        this.size = source.size();
+    }
+
+    /**
+     * function to get the row at a position, building its page if needed
+     * @param index
+     * @return row at the position
+     */
+    @Override
+    public T get(int index){
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Row " + index + " out of " + size);
+        }
+        int pageNumber = index / PAGE_SIZE;
+        List<T> page = pages.get(pageNumber);
+        if(page == null){
+            int start = pageNumber * PAGE_SIZE;
+            int end = Math.min(start + PAGE_SIZE, size);
+            page = new ArrayList<>(end - start);
+            for(int row = start; row < end; row++){
+                page.add(source.get(row));
+            }
+            pages.put(pageNumber, page);
+        }
+        return page.get(index - pageNumber * PAGE_SIZE);
+    }
+
+    /**
+     * size get function
+     * @return number of rows
+     */
+    @Override
+    public int size(){return size;}
+}
@@ -55,7 +55,13 @@ public class Part {
      * part name set function
      * @param name
      */
-    public void setName(String name){this.name = name;}
+    public void setName(String name){
+        boolean inInventory = Inventory.partRenaming(this);
+        this.name = name;
+        if(inInventory){
+            Inventory.partRenamed(this);
+        }
+    }
 
     /**
      * part price get function
@@ -67,7 +73,13 @@ public class Part {
      * part price set function
      * @param price
      */
-    public void setPrice(double price){this.price = price;}
+    public void setPrice(double price){
+        boolean inInventory = Inventory.partChanging(this);
+        this.price = price;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 
     /**
      * part inventory value get function
@@ -79,7 +91,13 @@ public class Part {
      * part inventory set function
      * @param stock
      */
-    public void setStock(int stock){this.stock = stock;}
+    public void setStock(int stock){
+        boolean inInventory = Inventory.partChanging(this);
+        this.stock = stock;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 
     /**
      * part minimum inventory value get function
@@ -91,7 +109,13 @@ public class Part {
      * part minimum inventory value set function
      * @param min
      */
-    public void setMin(int min){this.min = min;}
+    public void setMin(int min){
+        boolean inInventory = Inventory.partChanging(this);
+        this.min = min;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 
     /**
      * part maximum inventory value get function
@@ -103,7 +127,13 @@ public class Part {
      * part maximum inventory value set function
      * @param max
      */
-    public void setMax(int max){this.max = max;}
+    public void setMax(int max){
+        boolean inInventory = Inventory.partChanging(this);
+        this.max = max;
+        if(inInventory){
+            Inventory.partChanged(this);
+        }
+    }
 
 
 
@@ -0,0 +1,257 @@
+package model;
+
+import collections.Tables;
+
+import java.util.Arrays;
+
+/**
+ * Multiset of part ids with a quantity for each part
+ * Parts are kept in the order they were first added in two int arrays, with an open addressing table from
+ * part id to position, so adding units and counting a part take constant time
+ * The table uses the hashing and sizing rules in collections.Tables
+ * Removing the last unit of a part shifts the parts after it down one position, so the order is kept and
+ * that remove takes time in proportion to the number of parts
+ * @author Andre Simmons
+ */
+public class PartQuantities {
+
+    /**
+     * Marks an unused slot in the table
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Part ids by position
+     */
+    private int[] partIds;
+
+    /**
+     * Quantities by position
+     */
+    private int[] quantities;
+
+    /**
+     * Position of each part id plus one, by slot; 0 means the slot is unused
+     */
+    private int[] table;
+
+    /**
+     * Number of different parts
+     */
+    private int size;
+
+    /**
+     * Sum of every quantity
+     */
+    private long totalQuantity;
+
+    /**
+     * Constructor variable for an empty multiset
+     */
+    public PartQuantities(){
+        partIds = new int[4];
+        quantities = new int[4];
+        table = new int[8];
+    }
+
+    /**
+     * Constructor variable for a copy of another multiset
+     * @param other
+     */
+    public PartQuantities(PartQuantities other){
+        partIds = other.partIds.clone();
+        quantities = other.quantities.clone();
+        table = other.table.clone();
+        size = other.size;
+        totalQuantity = other.totalQuantity;
+    }
+
+    /**
+     * size get function
+     * @return number of different parts
+     */
+    public int size(){return size;}
+
+    /**
+     * function to check for no parts
+     * @return true if there are no parts
+     */
+    public boolean isEmpty(){return size == 0;}
+
+    /**
+     * total quantity get function
+     * @return sum of the quantities of every part
+     */
+    public long getTotalQuantity(){return totalQuantity;}
+
+    /**
+     * part id get function
+     * @param position
+     * @return part id at the position
+     */
+    public int partId(int position){return partIds[position];}
+
+    /**
+     * quantity get function
+     * @param position
+     * @return quantity at the position
+     */
+    public int quantity(int position){return quantities[position];}
+
+    /**
+     * function to count a part
+     * @param partId
+     * @return quantity of the part, 0 if it is not in the multiset
+     */
+    public int count(int partId){
+        int position = find(partId);
+        return position == EMPTY ? 0 : quantities[position];
+    }
+
+    /**
+     * function to add units of a part
+     * @param partId
+     * @param quantity
+     * @return true if the part was not in the multiset before
+     * @throws ArithmeticException if the part's quantity would no longer fit in an int; nothing is changed
+     */
+    public boolean add(int partId, int quantity){
+        if(quantity <= 0){
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        int position = find(partId);
+        long newTotal = Math.addExact(totalQuantity, quantity);
+        if(position != EMPTY){
+            quantities[position] = Math.addExact(quantities[position], quantity);
+            totalQuantity = newTotal;
+            return false;
+        }
+        totalQuantity = newTotal;
+        if(size == partIds.length){
+            partIds = Arrays.copyOf(partIds, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        if(Tables.mustGrow(size + 1, table.length)){
+            resize(table.length * 2);
+        }
+        partIds[size] = partId;
+        quantities[size] = quantity;
+        table[freeSlot(partId)] = size + 1;
+        size++;
+        return true;
+    }
+
+    /**
+     * function to remove units of a part
+     * @param partId
+     * @param quantity
+     * @return number of units removed, less than asked for if the multiset held fewer
+     */
+    public int remove(int partId, int quantity){
+        int position = find(partId);
+        if(position == EMPTY || quantity <= 0){
+            return 0;
+        }
+        if(quantity < quantities[position]){
+            quantities[position] -= quantity;
+            totalQuantity -= quantity;
+            return quantity;
+        }
+        int removed = quantities[position];
+        totalQuantity -= removed;
+        deleteSlot(partId);
+        size--;
+        System.arraycopy(partIds, position + 1, partIds, position, size - position);
+        System.arraycopy(quantities, position + 1, quantities, position, size - position);
+        for(int slot = 0; slot < table.length; slot++){
+            if(table[slot] > position + 1){
+                table[slot]--;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * function to remove every part
+     */
+    public void clear(){
+        Arrays.fill(table, 0);
+        size = 0;
+        totalQuantity = 0;
+    }
+
+    /**
+     * function to find the position of a part id
+     * @param partId
+     * @return position of the part, or EMPTY if not found
+     */
+    private int find(int partId){
+        int mask = table.length - 1;
+        for(int slot = Tables.hash(partId) & mask; table[slot] != 0; slot = (slot + 1) & mask){
+            if(partIds[table[slot] - 1] == partId){
+                return table[slot] - 1;
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * function to find the slot holding a part id that is in the table
+     * @param partId
+     * @return slot of the part id
+     */
+    private int slotOf(int partId){
+        int mask = table.length - 1;
+        int slot = Tables.hash(partId) & mask;
+        while(partIds[table[slot] - 1] != partId){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * function to find the first unused slot for a part id
+     * @param partId
+     * @return unused slot
+     */
+    private int freeSlot(int partId){
+        int mask = table.length - 1;
+        int slot = Tables.hash(partId) & mask;
+        while(table[slot] != 0){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * function to empty the slot of a part id, moving later entries back so lookups still find them
+     * @param partId
+     */
+    private void deleteSlot(int partId){
+        int mask = table.length - 1;
+        int gap = slotOf(partId);
+        int slot = gap;
+        while(true){
+            slot = (slot + 1) & mask;
+            if(table[slot] == 0){
+                break;
+            }
+            if(Tables.canFill(gap, slot, Tables.hash(partIds[table[slot] - 1]) & mask, mask)){
+                table[gap] = table[slot];
+                gap = slot;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    /**
+     * function to rebuild the table with a new number of slots
+     * @param capacity
+     */
+    private void resize(int capacity){
+        table = new int[capacity];
+        for(int position = 0; position < size; position++){
+            table[freeSlot(partIds[position])] = position + 1;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package model;
 
+import collections.IntSet;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * Creates a product that contains associated parts
+ * A product can also be built from other products, called sub-assemblies, to any depth
  *
  * @author Andre Simmons
  */
@@ -36,9 +41,14 @@ public class Product {
     private int max;
 
     /**
-     * List of associated parts for the product
+     * Associated parts of the product, as part ids with a quantity for each
      */
-    private ObservableList<Part> associatedParts = FXCollections.observableArrayList();
+    private final PartQuantities associatedParts = new PartQuantities();
+
+    /**
+     * Sub-assemblies of the product, as product ids with a quantity for each
+     */
+    private final PartQuantities subAssemblies = new PartQuantities();
 
     /**
      * Product Constructor variable
@@ -81,7 +91,13 @@ public class Product {
      * name set function
      * @param name
      */
-    public void setName(String name){this.name = name;}
+    public void setName(String name){
+        boolean inInventory = Inventory.productRenaming(this);
+        this.name = name;
+        if(inInventory){
+            Inventory.productRenamed(this);
+        }
+    }
 
     /**
      * price get function
@@ -93,7 +109,12 @@ public class Product {
      * price set function
      * @param price
      */
-    public void setPrice(double price){this.price = price;}
+    public void setPrice(double price){
+        this.price = price;
+        if(Inventory.isInInventory(this)){
+            Inventory.productChanged(this);
+        }
+    }
 
     /**
      * stock get function
@@ -105,7 +126,12 @@ public class Product {
      * stock set function
      * @param stock
      */
-    public void setStock(int stock){this.stock = stock;}
+    public void setStock(int stock){
+        this.stock = stock;
+        if(Inventory.isInInventory(this)){
+            Inventory.productStockChanged(this);
+        }
+    }
 
     /**
      * minimum inventory value get function
@@ -117,7 +143,12 @@ public class Product {
      * minimum inventory value set function
      * @param min
      */
-    public void setMin(int min){this.min = min;}
+    public void setMin(int min){
+        this.min = min;
+        if(Inventory.isInInventory(this)){
+            Inventory.productStockChanged(this);
+        }
+    }
 
     /**
      * maximum inventory value get function
@@ -129,31 +160,180 @@ public class Product {
      * maximum inventory value set function
      * @param max
      */
-    public void setMax(int max){this.max = max;}
+    public void setMax(int max){
+        this.max = max;
+        if(Inventory.isInInventory(this)){
+            Inventory.productStockChanged(this);
+        }
+    }
+
+    /**
+     * This function adds one unit of a part to the associated parts
+     * Products in the inventory also record the part in the inventory's part to product index
+     * @param part
+     */
+    public void addAssociatedPart(Part part){addAssociatedPart(part, 1);}
 
     /**
-     * This function adds a part to the associated parts list
+     * This function adds units of a part to the associated parts
      * @param part
+     * @param quantity
      */
-    public void addAssociatedPart(Part part){associatedParts.add(part);}
+    public void addAssociatedPart(Part part, int quantity){
+        boolean newPart = associatedParts.add(part.getId(), quantity);
+        if(Inventory.isInInventory(this)){
+            if(newPart){
+                Inventory.linkAssociatedPart(this, part.getId());
+            }
+            Inventory.componentsChanged(this);
+        }
+    }
 
     /**
-     * This function deletes a part from the associated parts list
+     * This function deletes one unit of a part from the associated parts
      * @param selectedAssociatedPart
-     * @return
+     * @return true if the product had the part
      */
     public boolean deleteAssociatedPart(Part selectedAssociatedPart){
-        if(associatedParts.contains(selectedAssociatedPart)){
-            associatedParts.remove(selectedAssociatedPart);
-            return true;
+        return deleteAssociatedPart(selectedAssociatedPart.getId(), 1) > 0;
+    }
+
+    /**
+     * This function deletes units of a part from the associated parts
+     * @param partId
+     * @param quantity
+     * @return number of units deleted
+     */
+    public int deleteAssociatedPart(int partId, int quantity){
+        int removed = associatedParts.remove(partId, quantity);
+        if(removed > 0 && Inventory.isInInventory(this)){
+            if(associatedParts.count(partId) == 0){
+                Inventory.unlinkAssociatedPart(this, partId);
+            }
+            Inventory.componentsChanged(this);
         }
-        else
-            return false;
+        return removed;
     }
 
     /**
-     * This function gets the list of all associated parts
+     * This function gets the quantity of a part in the associated parts
+     * @param partId
+     * @return quantity of the part, 0 if the product does not use it
+     */
+    public int getAssociatedPartQuantity(int partId){return associatedParts.count(partId);}
+
+    /**
+     * This function gets the associated part ids and quantities
+     * Change them through addAssociatedPart and deleteAssociatedPart so the inventory indexes stay current
+     * @return associated parts
+     */
+    public PartQuantities getAssociatedParts(){return associatedParts;}
+
+    /**
+     * This function adds units of another product as a sub-assembly of this product
+     * Products in the inventory also record the sub-assembly in the inventory's sub-assembly index
+     * @param subAssembly
+     * @param quantity
+     * @throws IllegalArgumentException if this product is the sub-assembly or is already built into it
+     */
+    public void addSubAssembly(Product subAssembly, int quantity){
+        if(subAssembly.getId() == id || subAssembly.usesSubAssembly(id)){
+            throw new IllegalArgumentException("A product cannot be built from itself");
+        }
+        putSubAssembly(subAssembly.getId(), quantity);
+    }
+
+    /**
+     * This function adds units of a sub-assembly by product id
+     * Used when modifying products and undoing changes; a sub-assembly that is not in the inventory yet is added unchecked
+     * @param productId
+     * @param quantity
+     * @throws IllegalArgumentException if this product is the sub-assembly or the sub-assembly in the inventory is built from it
+     */
+    void addSubAssembly(int productId, int quantity){
+        Product subAssembly = Inventory.lookupProduct(productId);
+        if(productId == id || (subAssembly != null && subAssembly.usesSubAssembly(id))){
+            throw new IllegalArgumentException("A product cannot be built from itself");
+        }
+        putSubAssembly(productId, quantity);
+    }
+
+    /**
+     * This function adds units of a sub-assembly by product id once it has been checked for loops
+     * @param productId
+     * @param quantity
+     */
+    private void putSubAssembly(int productId, int quantity){
+        boolean newSubAssembly = subAssemblies.add(productId, quantity);
+        if(Inventory.isInInventory(this)){
+            if(newSubAssembly){
+                Inventory.linkSubAssembly(this, productId);
+            }
+            Inventory.componentsChanged(this);
+        }
+    }
+
+    /**
+     * This function deletes units of a sub-assembly
+     * @param productId
+     * @param quantity
+     * @return number of units deleted
+     */
+    public int deleteSubAssembly(int productId, int quantity){
+        int removed = subAssemblies.remove(productId, quantity);
+        if(removed > 0 && Inventory.isInInventory(this)){
+            if(subAssemblies.count(productId) == 0){
+                Inventory.unlinkSubAssembly(this, productId);
+            }
+            Inventory.componentsChanged(this);
+        }
+        return removed;
+    }
+
+    /**
+     * This function gets the sub-assembly product ids and quantities
+     * Change them through addSubAssembly and deleteSubAssembly so the inventory indexes stay current
+     * @return sub-assemblies
+     */
+    public PartQuantities getSubAssemblies(){return subAssemblies;}
+
+    /**
+     * This function checks whether a product is built into this one at any depth
+     * Sub-assemblies are found through the inventory
+     * @param productId
+     * @return true if the product is a sub-assembly of this product or of one of its sub-assemblies
+     */
+    public boolean usesSubAssembly(int productId){
+        IntSet visited = new IntSet();
+        Deque<Product> pending = new ArrayDeque<>();
+        pending.push(this);
+        while(!pending.isEmpty()){
+            PartQuantities children = pending.pop().subAssemblies;
+            for(int i = 0; i < children.size(); i++){
+                if(children.partId(i) == productId){
+                    return true;
+                }
+                Product child = Inventory.lookupProduct(children.partId(i));
+                if(child != null && visited.add(child.getId())){
+                    pending.push(child);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This function gets the list of associated parts in the inventory, each listed once
      * @return associated parts list
      */
-    public ObservableList<Part> getAllAssociatedParts(){return associatedParts;}
+    public ObservableList<Part> getAllAssociatedParts(){
+        ObservableList<Part> parts = FXCollections.observableArrayList();
+        for(int i = 0; i < associatedParts.size(); i++){
+            Part part = Inventory.lookupPart(associatedParts.partId(i));
+            if(part != null){
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
 }
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Source of table rows that are built only when they are read
+ * @author Andre Simmons
+ */
+public interface RowSource<T> {
+
+    /**
+     * row count get function
+     * @return number of rows in the source
+     */
+    int size();
+
+    /**
+     * function to build the row at a position
+     * @param index
+     * @return row at the position
+     */
+    T get(int index);
+}
@@ -0,0 +1,240 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Inverted n-gram index used to search parts and products by id or name
+ * Every substring of up to GRAM_LENGTH characters of the id and name points to the items containing it
+ * Matches the same rule as a scan: the id or the name contains the search text
+ * Items with a null name can only be found by id
+ * Items are numbered by slot in the order they were added and posting lists hold slot numbers, not objects
+ * Removed items leave an empty slot that searches skip; the index is rebuilt once most slots are empty
+ * Methods are synchronized so searches can run off the FX application thread
+ * @author Andre Simmons
+ */
+public class SearchIndex<T> {
+
+    /**
+     * Longest substring stored in the index
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Fewest empty slots before the index may be rebuilt
+     */
+    private static final int MIN_REBUILD_SLOTS = 1024;
+
+    /**
+     * Slot numbers of the items containing each indexed substring, in slot order
+     */
+    private Map<String, Posting> postings = new HashMap<>();
+
+    /**
+     * Item in each slot, null once the item is removed
+     */
+    private Object[] items = new Object[16];
+
+    /**
+     * Number of slots handed out
+     */
+    private int slotCount;
+
+    /**
+     * Slot of every item in the index
+     */
+    private Map<T, Integer> slots = new IdentityHashMap<>();
+
+    /**
+     * Function that reads an item's id
+     */
+    private final ToIntFunction<T> idFunction;
+
+    /**
+     * Function that reads an item's name
+     */
+    private final Function<T, String> nameFunction;
+
+    /**
+     * Growable list of slot numbers
+     */
+    private static class Posting {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot){
+            if(size == slots.length){
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Constructor variable for the search index
+     * @param idFunction
+     * @param nameFunction
+     */
+    public SearchIndex(ToIntFunction<T> idFunction, Function<T, String> nameFunction){
+        this.idFunction = idFunction;
+        this.nameFunction = nameFunction;
+    }
+
+    /**
+     * function to add an item to the index
+     * @param item
+     */
+    public synchronized void add(T item){
+        if(slots.containsKey(item)){
+            return;
+        }
+        if(slotCount == items.length){
+            items = Arrays.copyOf(items, slotCount * 2);
+        }
+        int slot = slotCount++;
+        items[slot] = item;
+        slots.put(item, slot);
+        for(String gram : grams(item)){
+            postings.computeIfAbsent(gram, key -> new Posting()).add(slot);
+        }
+    }
+
+    /**
+     * function to remove an item from the index
+     * @param item
+     */
+    public synchronized void remove(T item){
+        Integer slot = slots.remove(item);
+        if(slot == null){
+            return;
+        }
+        items[slot] = null;
+        int emptySlots = slotCount - slots.size();
+        if(emptySlots >= MIN_REBUILD_SLOTS && emptySlots > slots.size()){
+            rebuild();
+        }
+    }
+
+    /**
+     * function to check if an item is in the index
+     * @param item
+     * @return true if the item is in the index
+     */
+    public synchronized boolean contains(T item){return slots.containsKey(item);}
+
+    /**
+     * function to search the index by id or name
+     * @param searchString
+     * @return items whose id or name contains the search text
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> search(String searchString){
+        List<T> itemsFound = new ArrayList<>();
+        if(searchString.isEmpty()){
+            for(int slot = 0; slot < slotCount; slot++){
+                if(items[slot] != null){
+                    itemsFound.add((T) items[slot]);
+                }
+            }
+            return itemsFound;
+        }
+        if(searchString.length() <= GRAM_LENGTH){
+            Posting posting = postings.get(searchString);
+            if(posting != null){
+                for(int i = 0; i < posting.size; i++){
+                    Object item = items[posting.slots[i]];
+                    if(item != null){
+                        itemsFound.add((T) item);
+                    }
+                }
+            }
+            return itemsFound;
+        }
+
+        Posting smallest = null;
+        for(int i = 0; i + GRAM_LENGTH <= searchString.length(); i++){
+            Posting posting = postings.get(searchString.substring(i, i + GRAM_LENGTH));
+            if(posting == null){
+                return itemsFound;
+            }
+            if(smallest == null || posting.size < smallest.size){
+                smallest = posting;
+            }
+        }
+
+        for(int i = 0; i < smallest.size; i++){
+            T item = (T) items[smallest.slots[i]];
+            if(item == null){
+                continue;
+            }
+            String name = nameFunction.apply(item);
+            if(String.valueOf(idFunction.applyAsInt(item)).contains(searchString) ||
+                    (name != null && name.contains(searchString))){
+                itemsFound.add(item);
+            }
+        }
+        return itemsFound;
+    }
+
+    /**
+     * function to remove every item from the index
+     */
+    public synchronized void clear(){
+        postings = new HashMap<>();
+        items = new Object[16];
+        slotCount = 0;
+        slots = new IdentityHashMap<>();
+    }
+
+    /**
+     * function to rebuild the index from the items still in it, dropping empty slots
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild(){
+        Object[] oldItems = items;
+        int oldSlotCount = slotCount;
+        clear();
+        for(int slot = 0; slot < oldSlotCount; slot++){
+            if(oldItems[slot] != null){
+                add((T) oldItems[slot]);
+            }
+        }
+    }
+
+    /**
+     * function to list the distinct substrings of an item's id and name
+     * @param item
+     * @return indexed substrings
+     */
+    private Set<String> grams(T item){
+        Set<String> grams = new HashSet<>();
+        addGrams(String.valueOf(idFunction.applyAsInt(item)), grams);
+        String name = nameFunction.apply(item);
+        if(name != null){
+            addGrams(name, grams);
+        }
+        return grams;
+    }
+
+    /**
+     * function to add every substring of up to GRAM_LENGTH characters of a text
+     * @param text
+     * @param grams
+     */
+    private static void addGrams(String text, Set<String> grams){
+        for(int start = 0; start < text.length(); start++){
+            int end = Math.min(start + GRAM_LENGTH, text.length());
+            for(int stop = start + 1; stop <= end; stop++){
+                grams.add(text.substring(start, stop));
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package model;
+
+import collections.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Watches the stock of every part or product against its min and max
+ * An item needs reorder when its stock is at or below its min, and is over stocked when its stock is above its max
+ *
+ * Items are kept in two binary heaps, one ordered by distance from stock down to min and one by distance from
+ * stock up to max, so a stock change moves one item in each heap in O(log n)
+ * The items with an alert sit at the top of each heap and are listed without looking at the rest of the inventory
+ * @author Andre Simmons
+ */
+public class StockAlerts<T> {
+
+    /**
+     * One watched item and its place in both heaps
+     */
+    private static class Entry<T> {
+        private T item;
+        private long lowKey;
+        private long highKey;
+        private int lowPosition;
+        private int highPosition;
+    }
+
+    /**
+     * Function that reads an item's id
+     */
+    private final ToIntFunction<T> idFunction;
+
+    /**
+     * Function that reads an item's stock
+     */
+    private final ToIntFunction<T> stockFunction;
+
+    /**
+     * Function that reads an item's min
+     */
+    private final ToIntFunction<T> minFunction;
+
+    /**
+     * Function that reads an item's max
+     */
+    private final ToIntFunction<T> maxFunction;
+
+    /**
+     * Entry of every watched item, by id
+     */
+    private final IntObjectMap<Entry<T>> entries = new IntObjectMap<>();
+
+    /**
+     * Heap ordered by stock minus min, smallest first
+     */
+    private final Heap low = new Heap(true);
+
+    /**
+     * Heap ordered by max minus stock, smallest first
+     */
+    private final Heap high = new Heap(false);
+
+    /**
+     * Called after an item is watched, read again or no longer watched
+     */
+    private final List<Runnable> listeners = new ArrayList<>();
+
+    /**
+     * Constructor variable for an empty alert engine
+     * @param idFunction
+     * @param stockFunction
+     * @param minFunction
+     * @param maxFunction
+     */
+    StockAlerts(ToIntFunction<T> idFunction, ToIntFunction<T> stockFunction, ToIntFunction<T> minFunction, ToIntFunction<T> maxFunction){
+        this.idFunction = idFunction;
+        this.stockFunction = stockFunction;
+        this.minFunction = minFunction;
+        this.maxFunction = maxFunction;
+    }
+
+    /**
+     * function to count the items that need reorder
+     * @return number of items with stock at or below min
+     */
+    public int getNeedsReorderCount(){return low.alerts;}
+
+    /**
+     * function to count the items that are over stocked
+     * @return number of items with stock above max
+     */
+    public int getOverStockedCount(){return high.alerts;}
+
+    /**
+     * function to list the items that need reorder
+     * Takes time in proportion to the number of items listed, not the size of the inventory
+     * @return items with stock at or below min, furthest below min first
+     */
+    public List<T> getNeedsReorder(){return low.alerted();}
+
+    /**
+     * function to list the items that are over stocked
+     * Takes time in proportion to the number of items listed, not the size of the inventory
+     * @return items with stock above max, furthest above max first
+     */
+    public List<T> getOverStocked(){return high.alerted();}
+
+    /**
+     * function to check one item
+     * @param item
+     * @return true if the item is watched and needs reorder
+     */
+    public boolean needsReorder(T item){
+        Entry<T> entry = entries.get(idFunction.applyAsInt(item));
+        return entry != null && entry.lowKey <= 0;
+    }
+
+    /**
+     * function to add a listener called after an item is watched, read again or no longer watched
+     * Listeners run on the thread that changed the inventory
+     * @param listener
+     */
+    public void addListener(Runnable listener){listeners.add(listener);}
+
+    /**
+     * function to start watching an item or read its stock, min and max again
+     * Replaces any item watched with the same id
+     * @param item
+     */
+    void update(T item){
+        int id = idFunction.applyAsInt(item);
+        Entry<T> entry = entries.get(id);
+        if(entry == null){
+            entry = new Entry<>();
+            entries.put(id, entry);
+            entry.item = item;
+            entry.lowKey = lowKey(item);
+            entry.highKey = highKey(item);
+            low.insert(entry);
+            high.insert(entry);
+        } else {
+            entry.item = item;
+            low.changeKey(entry, lowKey(item));
+            high.changeKey(entry, highKey(item));
+        }
+        notifyListeners();
+    }
+
+    /**
+     * function to stop watching an item
+     * Nothing happens if a different item is now watched with the same id
+     * @param item
+     */
+    void remove(T item){
+        int id = idFunction.applyAsInt(item);
+        Entry<T> entry = entries.get(id);
+        if(entry != null && entry.item == item){
+            entries.remove(id);
+            low.delete(entry);
+            high.delete(entry);
+            notifyListeners();
+        }
+    }
+
+    /**
+     * function to tell every listener that the alerts may have changed
+     */
+    private void notifyListeners(){
+        for(Runnable listener : listeners){
+            listener.run();
+        }
+    }
+
+    /**
+     * function to work out how far an item's stock is above its min
+     * @param item
+     * @return stock minus min, 0 or less when the item needs reorder
+     */
+    private long lowKey(T item){return (long) stockFunction.applyAsInt(item) - minFunction.applyAsInt(item);}
+
+    /**
+     * function to work out how far an item's stock is below its max
+     * @param item
+     * @return max minus stock, less than 0 when the item is over stocked
+     */
+    private long highKey(T item){return (long) maxFunction.applyAsInt(item) - stockFunction.applyAsInt(item);}
+
+    /**
+     * Binary min heap over the entries, using either the low or the high key and position of each entry
+     */
+    private class Heap {
+        private final boolean lowSide;
+        private Object[] heap = new Object[16];
+        private int size;
+        private int alerts;
+
+        private Heap(boolean lowSide){
+            this.lowSide = lowSide;
+        }
+
+        private void insert(Entry<T> entry){
+            if(size == heap.length){
+                Object[] grown = new Object[size * 2];
+                System.arraycopy(heap, 0, grown, 0, size);
+                heap = grown;
+            }
+            if(isAlert(key(entry))){
+                alerts++;
+            }
+            place(entry, size++);
+            siftUp(position(entry));
+        }
+
+        private void changeKey(Entry<T> entry, long key){
+            long oldKey = key(entry);
+            if(isAlert(oldKey) != isAlert(key)){
+                alerts += isAlert(key) ? 1 : -1;
+            }
+            if(lowSide){
+                entry.lowKey = key;
+            } else {
+                entry.highKey = key;
+            }
+            if(key < oldKey){
+                siftUp(position(entry));
+            } else if(key > oldKey){
+                siftDown(position(entry));
+            }
+        }
+
+        private void delete(Entry<T> entry){
+            if(isAlert(key(entry))){
+                alerts--;
+            }
+            int position = position(entry);
+            Entry<T> last = at(--size);
+            heap[size] = null;
+            if(last != entry){
+                place(last, position);
+                siftDown(position);
+                siftUp(position(last));
+            }
+        }
+
+        /**
+         * Lists the alerted entries by walking down from the top and stopping at the first entry of each branch
+         * without an alert, since every entry below it has a larger key
+         */
+        private List<T> alerted(){
+            List<Entry<T>> found = new ArrayList<>(alerts);
+            int[] pending = new int[Math.max(1, alerts * 2 + 1)];
+            int top = 0;
+            if(size > 0){
+                pending[top++] = 0;
+            }
+            while(top > 0){
+                int position = pending[--top];
+                Entry<T> entry = at(position);
+                if(isAlert(key(entry))){
+                    found.add(entry);
+                    for(int child = position * 2 + 1; child <= position * 2 + 2 && child < size; child++){
+                        pending[top++] = child;
+                    }
+                }
+            }
+            found.sort(Comparator.comparingLong(this::key).thenComparingInt(entry -> idFunction.applyAsInt(entry.item)));
+            List<T> items = new ArrayList<>(found.size());
+            for(Entry<T> entry : found){
+                items.add(entry.item);
+            }
+            return items;
+        }
+
+        private void siftUp(int position){
+            Entry<T> entry = at(position);
+            while(position > 0){
+                int parent = (position - 1) / 2;
+                if(key(at(parent)) <= key(entry)){
+                    break;
+                }
+                place(at(parent), position);
+                position = parent;
+            }
+            place(entry, position);
+        }
+
+        private void siftDown(int position){
+            Entry<T> entry = at(position);
+            while(true){
+                int child = position * 2 + 1;
+                if(child >= size){
+                    break;
+                }
+                if(child + 1 < size && key(at(child + 1)) < key(at(child))){
+                    child++;
+                }
+                if(key(entry) <= key(at(child))){
+                    break;
+                }
+                place(at(child), position);
+                position = child;
+            }
+            place(entry, position);
+        }
+
+        private boolean isAlert(long key){return lowSide ? key <= 0 : key < 0;}
+
+        private long key(Entry<T> entry){return lowSide ? entry.lowKey : entry.highKey;}
+
+        private int position(Entry<T> entry){return lowSide ? entry.lowPosition : entry.highPosition;}
+
+        @SuppressWarnings("unchecked")
+        private Entry<T> at(int position){return (Entry<T>) heap[position];}
+
+        private void place(Entry<T> entry, int position){
+            heap[position] = entry;
+            if(lowSide){
+                entry.lowPosition = position;
+            } else {
+                entry.highPosition = position;
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Undo and redo history of the changes made through the inventory service
+ * Each step keeps only what changed: the part or product objects that were added, replaced or deleted,
+ * their row, and the part or sub-assembly quantities that were moved. Parts and products are shared with the
+ * inventory and never copied, so a step costs a few references whatever the size of the inventory
+ *
+ * Steps are undone and redone through the inventory, so they are saved to the store like any other change
+ * Changes made through setters or directly on the inventory are not recorded
+ * @author Andre Simmons
+ */
+public class UndoHistory {
+
+    /**
+     * One recorded change
+     */
+    private interface Step {
+        void undo();
+        void redo();
+    }
+
+    /**
+     * Most steps kept; the oldest step is dropped when a new one goes past the limit
+     */
+    private final int limit;
+
+    /**
+     * Steps that can be undone, newest first
+     */
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+
+    /**
+     * Steps that can be redone, newest undo first
+     */
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /**
+     * Constructor variable for an empty history
+     * @param limit
+     */
+    public UndoHistory(int limit){
+        if(limit <= 0){
+            throw new IllegalArgumentException("limit must be greater than 0");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * function to check for a step to undo
+     * @return true if there is a step to undo
+     */
+    public boolean canUndo(){return !undoSteps.isEmpty();}
+
+    /**
+     * function to check for a step to redo
+     * @return true if there is a step to redo
+     */
+    public boolean canRedo(){return !redoSteps.isEmpty();}
+
+    /**
+     * undo size get function
+     * @return number of steps that can be undone
+     */
+    public int getUndoSize(){return undoSteps.size();}
+
+    /**
+     * function to undo the newest step
+     * The step only moves to the redo steps once it has been undone; if undoing it throws, it stays the newest step
+     * @return true if a step was undone
+     */
+    public boolean undo(){
+        Step step = undoSteps.peekFirst();
+        if(step == null){
+            return false;
+        }
+        step.undo();
+        undoSteps.removeFirst();
+        redoSteps.addFirst(step);
+        return true;
+    }
+
+    /**
+     * function to redo the newest undone step
+     * The step only moves to the undo steps once it has been redone; if redoing it throws, it stays the newest undone step
+     * @return true if a step was redone
+     */
+    public boolean redo(){
+        Step step = redoSteps.peekFirst();
+        if(step == null){
+            return false;
+        }
+        step.redo();
+        redoSteps.removeFirst();
+        undoSteps.addFirst(step);
+        return true;
+    }
+
+    /**
+     * function to forget every step
+     */
+    public void clear(){
+        undoSteps.clear();
+        redoSteps.clear();
+    }
+
+    /**
+     * function to record that a part was added
+     * @param newPart
+     */
+    void partAdded(Part newPart){
+        record(new Step() {
+            public void undo(){Inventory.deletePart(newPart);}
+            public void redo(){Inventory.addPart(newPart);}
+        });
+    }
+
+    /**
+     * function to record that a part was replaced by a part with the same id
+     * @param oldPart
+     * @param newPart
+     */
+    void partReplaced(Part oldPart, Part newPart){
+        record(new Step() {
+            public void undo(){swapPart(newPart, oldPart);}
+            public void redo(){swapPart(oldPart, newPart);}
+        });
+    }
+
+    /**
+     * function to record that a part was deleted from a row
+     * @param row
+     * @param oldPart
+     */
+    void partDeleted(int row, Part oldPart){
+        record(new Step() {
+            public void undo(){Inventory.insertPart(row, oldPart);}
+            public void redo(){Inventory.deletePart(oldPart);}
+        });
+    }
+
+    /**
+     * function to record that a part was deleted from a row after being removed from the products that used it
+     * @param row
+     * @param oldPart
+     * @param products products the part was removed from
+     * @param quantities units of the part each product used
+     */
+    void partDeletedFromProducts(int row, Part oldPart, List<Product> products, int[] quantities){
+        Product[] users = products.toArray(new Product[0]);
+        record(new Step() {
+            public void undo(){
+                Inventory.insertPart(row, oldPart);
+                for(int i = 0; i < users.length; i++){
+                    users[i].addAssociatedPart(oldPart, quantities[i]);
+                    Inventory.replaceProduct(users[i]);
+                }
+            }
+            public void redo(){
+                Inventory.deletePartFromProducts(oldPart);
+                Inventory.deletePart(oldPart);
+            }
+        });
+    }
+
+    /**
+     * function to record that a product was added
+     * @param newProduct
+     */
+    void productAdded(Product newProduct){
+        record(new Step() {
+            public void undo(){Inventory.deleteProduct(newProduct);}
+            public void redo(){Inventory.addProduct(newProduct);}
+        });
+    }
+
+    /**
+     * function to record that a product was replaced by a product with the same id
+     * @param oldProduct
+     * @param newProduct
+     */
+    void productReplaced(Product oldProduct, Product newProduct){
+        record(new Step() {
+            public void undo(){swapProduct(newProduct, oldProduct);}
+            public void redo(){swapProduct(oldProduct, newProduct);}
+        });
+    }
+
+    /**
+     * function to record that a product was deleted from a row
+     * @param row
+     * @param oldProduct
+     */
+    void productDeleted(int row, Product oldProduct){
+        record(new Step() {
+            public void undo(){Inventory.insertProduct(row, oldProduct);}
+            public void redo(){Inventory.deleteProduct(oldProduct);}
+        });
+    }
+
+    /**
+     * function to record that units of a sub-assembly were added to a product
+     * @param product
+     * @param subAssemblyId
+     * @param quantity
+     */
+    void subAssemblyAdded(Product product, int subAssemblyId, int quantity){
+        record(new Step() {
+            public void undo(){removeSubAssembly(product, subAssemblyId, quantity);}
+            public void redo(){addSubAssembly(product, subAssemblyId, quantity);}
+        });
+    }
+
+    /**
+     * function to record that units of a sub-assembly were removed from a product
+     * @param product
+     * @param subAssemblyId
+     * @param quantity
+     */
+    void subAssemblyDeleted(Product product, int subAssemblyId, int quantity){
+        record(new Step() {
+            public void undo(){addSubAssembly(product, subAssemblyId, quantity);}
+            public void redo(){removeSubAssembly(product, subAssemblyId, quantity);}
+        });
+    }
+
+    /**
+     * function to add a step, dropping the redo steps and the oldest step past the limit
+     * @param step
+     */
+    private void record(Step step){
+        redoSteps.clear();
+        undoSteps.addFirst(step);
+        if(undoSteps.size() > limit){
+            undoSteps.pollLast();
+        }
+    }
+
+    /**
+     * function to put one part in place of another, or add it if the other is gone
+     * @param current
+     * @param replacement
+     */
+    private static void swapPart(Part current, Part replacement){
+        int row = Inventory.partRow(current);
+        if(row >= 0){
+            Inventory.updatePart(row, replacement);
+        } else {
+            Inventory.addPart(replacement);
+        }
+    }
+
+    /**
+     * function to put one product in place of another, or add it if the other is gone
+     * @param current
+     * @param replacement
+     */
+    private static void swapProduct(Product current, Product replacement){
+        int row = Inventory.productRow(current);
+        if(row >= 0){
+            Inventory.updateProduct(row, replacement);
+        } else {
+            Inventory.addProduct(replacement);
+        }
+    }
+
+    /**
+     * function to add units of a sub-assembly back to a product and save it
+     * @param product
+     * @param subAssemblyId
+     * @param quantity
+     */
+    private static void addSubAssembly(Product product, int subAssemblyId, int quantity){
+        product.addSubAssembly(subAssemblyId, quantity);
+        Inventory.replaceProduct(product);
+    }
+
+    /**
+     * function to take units of a sub-assembly out of a product and save it
+     * @param product
+     * @param subAssemblyId
+     * @param quantity
+     */
+    private static void removeSubAssembly(Product product, int subAssemblyId, int quantity){
+        product.deleteSubAssembly(subAssemblyId, quantity);
+        Inventory.replaceProduct(product);
+    }
+}
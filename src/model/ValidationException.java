@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * Thrown when a part or product fails the inventory rules
+ * @author Andre Simmons
+ */
+public class ValidationException extends Exception {
+
+    /**
+     * Version of the serialized form
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Rules a part or product can fail
+     */
+    public enum Reason {
+        /** Name is empty */
+        NAME_EMPTY,
+        /** Min is not greater than 0 and less than Max */
+        MIN_INVALID,
+        /** Inventory is not between Min and Max */
+        INVENTORY_INVALID,
+        /** Machine ID is not a number */
+        MACHINE_ID_INVALID,
+        /** Product still has associated parts */
+        PRODUCT_HAS_PARTS,
+        /** Product is a sub-assembly of another product */
+        PRODUCT_IN_USE,
+        /** Product would be built from itself */
+        ASSEMBLY_LOOP
+    }
+
+    /**
+     * Rule that failed
+     */
+    private final Reason reason;
+
+    /**
+     * Constructor variable for the exception
+     * @param reason
+     * @param message
+     */
+    public ValidationException(Reason reason, String message){
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * reason get function
+     * @return rule that failed
+     */
+    public Reason getReason(){return reason;}
+}
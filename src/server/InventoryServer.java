@@ -0,0 +1,549 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Inventory;
+import model.InventoryService;
+import model.Part;
+import model.PartQuantities;
+import model.Product;
+import model.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Headless HTTP/JSON server for the inventory, built on the JDK HTTP server
+ *
+ * GET    /parts?search=text&amp;offset=0&amp;limit=100   list or search parts
+ * GET    /parts/{id}                              look up a part
+ * POST   /parts                                   add a part: type (inhouse or outsourced), name, price, stock, min, max,
+ *                                                 machineId or companyName
+ * DELETE /parts/{id}?cascade=true                 delete a part; a part used by products is refused (409)
+ *                                                 unless cascade is set, which also removes it from those products
+ * GET    /products?search=text&amp;offset=0&amp;limit=100 list or search products
+ * GET    /products/{id}                           look up a product
+ * POST   /products                                add a product: name, price, stock, min, max, parts (array of part ids,
+ *                                                 a part id given more than once is added with that quantity)
+ * DELETE /products/{id}                           delete a product with no associated parts
+ *
+ * The server only listens on the loopback address, since requests are not authenticated
+ * Requests run on virtual threads when the JVM has them and on a fixed pool otherwise
+ * Reads share a read lock and changes take the write lock, since the inventory is not thread safe
+ * Responses are sent after the lock is released, so a slow client never holds up other requests
+ * Malformed JSON, query parameters and field types are answered with 400, and any other error with 500
+ * Response text is built and encoded in pooled buffers so busy lookups do not allocate new buffers per request
+ * @author Andre Simmons
+ */
+public class InventoryServer {
+
+    /**
+     * Most rows returned by a list or search when no limit is given
+     */
+    private static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Number of pooled response buffers
+     */
+    private static final int BUFFER_POOL_SIZE = 256;
+
+    /**
+     * Largest buffer returned to the pool; bigger ones are dropped so the pool stays small
+     */
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    static {
+        // Without TCP_NODELAY small responses wait on delayed acknowledgements, about 40ms each
+        if(System.getProperty("sun.net.httpserver.nodelay") == null){
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * JDK HTTP server
+     */
+    private final HttpServer server;
+
+    /**
+     * Runs the requests
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Guards the inventory between request threads
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Response buffers ready for reuse
+     */
+    private final BlockingQueue<Response> buffers = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+
+    /**
+     * Pooled response text with the encoder and bytes it is encoded into
+     */
+    private static class Response {
+        private final StringBuilder text = new StringBuilder(512);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer bytes = ByteBuffer.allocate(1024);
+    }
+
+    /**
+     * Constructor variable for the server
+     * @param port
+     * @throws IOException
+     */
+    public InventoryServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/parts", this::handleParts);
+        server.createContext("/products", this::handleProducts);
+    }
+
+    /**
+     * function to start answering requests
+     */
+    public void start(){server.start();}
+
+    /**
+     * function to stop the server
+     */
+    public void stop(){
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * port get function
+     * @return port the server listens on
+     */
+    public int getPort(){return server.getAddress().getPort();}
+
+    /**
+     * function to create the request executor
+     * Uses a virtual thread per request on JVMs that have virtual threads
+     * @return request executor
+     */
+    private static ExecutorService requestExecutor(){
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+
+    /**
+     * function to handle /parts requests
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleParts(HttpExchange exchange) throws IOException {
+        Response response = borrowBuffer();
+        StringBuilder out = response.text;
+        try {
+            String idText = pathId(exchange, "/parts");
+            int status;
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    status = 200;
+                    lock.readLock().lock();
+                    try {
+                        if(idText != null){
+                            Part part = Inventory.lookupPart(Integer.parseInt(idText));
+                            if(part == null){
+                                error(out, "Part not found");
+                                status = 404;
+                            } else {
+                                Json.writePart(out, part);
+                            }
+                        } else {
+                            Map<String, String> query = query(exchange);
+                            List<Part> parts = query.containsKey("search")
+                                    ? InventoryService.searchParts(query.get("search"))
+                                    : Inventory.getAllParts();
+                            writeList(out, parts, query, Json::writePart);
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    break;
+                case "POST":
+                    Map<String, Object> fields = Json.readObject(readBody(exchange));
+                    String name = string(fields, "name");
+                    double price = number(fields, "price");
+                    int stock = (int) number(fields, "stock");
+                    int min = (int) number(fields, "min");
+                    int max = (int) number(fields, "max");
+                    boolean outsourced = "outsourced".equals(fields.get("type"));
+                    String companyName = outsourced ? string(fields, "companyName") : null;
+                    Object machineId = fields.get("machineId");
+                    Part part;
+                    lock.writeLock().lock();
+                    try {
+                        if(outsourced){
+                            part = InventoryService.addOutsourcedPart(name, price, stock, min, max, companyName);
+                        } else {
+                            part = InventoryService.addInHousePart(name, price, stock, min, max,
+                                    machineId instanceof Double ? String.valueOf(((Double) machineId).intValue()) : String.valueOf(machineId));
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    Json.writePart(out, part);
+                    status = 201;
+                    break;
+                case "DELETE":
+                    int partId = idText == null ? 0 : Integer.parseInt(idText);
+                    boolean cascade = "true".equals(query(exchange).get("cascade"));
+                    int productsUsingPart = 0;
+                    boolean deleted = false;
+                    lock.writeLock().lock();
+                    try {
+                        Part selectedPart = Inventory.lookupPart(partId);
+                        if(selectedPart != null && !cascade){
+                            productsUsingPart = InventoryService.getProductsUsingPart(selectedPart).size();
+                        }
+                        if(productsUsingPart == 0){
+                            deleted = selectedPart != null && InventoryService.deletePartAndAssociations(selectedPart);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    if(productsUsingPart > 0){
+                        error(out, "Part is used by " + productsUsingPart
+                                + " product(s), delete with cascade=true to remove it from them");
+                        status = 409;
+                    } else if(deleted){
+                        status = 204;
+                    } else {
+                        error(out, "Part not found");
+                        status = 404;
+                    }
+                    break;
+                default:
+                    error(out, "Method not allowed");
+                    status = 405;
+            }
+            send(exchange, status, response);
+        } catch (ValidationException e) {
+            send(exchange, 422, response, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, response, "Bad request: " + e.getMessage());
+        } catch (RuntimeException e) {
+            internalError(exchange, response, e);
+        } finally {
+            returnBuffer(response);
+        }
+    }
+
+    /**
+     * function to handle /products requests
+     * @param exchange
+     * @throws IOException
+     */
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        Response response = borrowBuffer();
+        StringBuilder out = response.text;
+        try {
+            String idText = pathId(exchange, "/products");
+            int status;
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    status = 200;
+                    lock.readLock().lock();
+                    try {
+                        if(idText != null){
+                            Product product = Inventory.lookupProduct(Integer.parseInt(idText));
+                            if(product == null){
+                                error(out, "Product not found");
+                                status = 404;
+                            } else {
+                                Json.writeProduct(out, product);
+                            }
+                        } else {
+                            Map<String, String> query = query(exchange);
+                            List<Product> products = query.containsKey("search")
+                                    ? InventoryService.searchProducts(query.get("search"))
+                                    : Inventory.getAllProducts();
+                            writeList(out, products, query, Json::writeProduct);
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    break;
+                case "POST":
+                    Map<String, Object> fields = Json.readObject(readBody(exchange));
+                    String name = string(fields, "name");
+                    double price = number(fields, "price");
+                    int stock = (int) number(fields, "stock");
+                    int min = (int) number(fields, "min");
+                    int max = (int) number(fields, "max");
+                    PartQuantities associatedParts = new PartQuantities();
+                    Object partIds = fields.get("parts");
+                    if(partIds instanceof List){
+                        for(Object partId : (List<?>) partIds){
+                            if(!(partId instanceof Double)){
+                                throw new IllegalArgumentException("parts must be an array of part ids");
+                            }
+                            associatedParts.add(((Double) partId).intValue(), 1);
+                        }
+                    }
+                    Product product;
+                    lock.writeLock().lock();
+                    try {
+                        for(int i = 0; i < associatedParts.size(); i++){
+                            if(Inventory.lookupPart(associatedParts.partId(i)) == null){
+                                throw new IllegalArgumentException("Part " + associatedParts.partId(i) + " not found");
+                            }
+                        }
+                        product = InventoryService.addProduct(name, price, stock, min, max, associatedParts);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    Json.writeProduct(out, product);
+                    status = 201;
+                    break;
+                case "DELETE":
+                    int productId = idText == null ? 0 : Integer.parseInt(idText);
+                    boolean deleted;
+                    lock.writeLock().lock();
+                    try {
+                        Product selectedProduct = Inventory.lookupProduct(productId);
+                        deleted = selectedProduct != null && InventoryService.deleteProduct(selectedProduct);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    if(deleted){
+                        status = 204;
+                    } else {
+                        error(out, "Product not found");
+                        status = 404;
+                    }
+                    break;
+                default:
+                    error(out, "Method not allowed");
+                    status = 405;
+            }
+            send(exchange, status, response);
+        } catch (ValidationException e) {
+            send(exchange, 422, response, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, response, "Bad request: " + e.getMessage());
+        } catch (RuntimeException e) {
+            internalError(exchange, response, e);
+        } finally {
+            returnBuffer(response);
+        }
+    }
+
+    /**
+     * Writes one list item as JSON
+     */
+    private interface ItemWriter<T> {
+        void write(StringBuilder out, T item);
+    }
+
+    /**
+     * function to write one page of a list as a JSON object with the total count
+     * @param out
+     * @param items
+     * @param query
+     * @param writer
+     */
+    private static <T> void writeList(StringBuilder out, List<T> items, Map<String, String> query, ItemWriter<T> writer){
+        int offset = Math.max(0, Integer.parseInt(query.getOrDefault("offset", "0")));
+        int limit = Math.max(0, Integer.parseInt(query.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT))));
+        int end = (int) Math.min(items.size(), (long) offset + limit);
+        out.append("{\"total\":").append(items.size()).append(",\"items\":[");
+        for(int i = offset; i < end; i++){
+            if(i > offset){
+                out.append(',');
+            }
+            writer.write(out, items.get(i));
+        }
+        out.append("]}");
+    }
+
+    /**
+     * function to read the id after a path prefix
+     * @param exchange
+     * @param prefix
+     * @return id text, or null if the path has no id
+     */
+    private static String pathId(HttpExchange exchange, String prefix){
+        String path = exchange.getRequestURI().getPath();
+        if(path.length() <= prefix.length() + 1){
+            return null;
+        }
+        return path.substring(prefix.length() + 1);
+    }
+
+    /**
+     * function to read the query string parameters
+     * @param exchange
+     * @return parameters by name
+     */
+    private static Map<String, String> query(HttpExchange exchange){
+        Map<String, String> parameters = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if(rawQuery != null){
+            for(String pair : rawQuery.split("&")){
+                int equals = pair.indexOf('=');
+                if(equals > 0){
+                    parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * function to read a text field from a JSON object
+     * @param fields
+     * @param name
+     * @return field value, or null if it is missing
+     */
+    private static String string(Map<String, Object> fields, String name){
+        Object value = fields.get(name);
+        if(value != null && !(value instanceof String)){
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return (String) value;
+    }
+
+    /**
+     * function to read a number field from a JSON object
+     * @param fields
+     * @param name
+     * @return field value
+     */
+    private static double number(Map<String, Object> fields, String name){
+        Object value = fields.get(name);
+        if(!(value instanceof Double)){
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        return (Double) value;
+    }
+
+    /**
+     * function to read the request body
+     * @param exchange
+     * @return body text
+     * @throws IOException
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try(InputStream in = exchange.getRequestBody()){
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * function to write an error message as JSON
+     * @param out
+     * @param message
+     */
+    private static void error(StringBuilder out, String message){
+        out.setLength(0);
+        out.append("{\"error\":");
+        Json.writeString(out, message);
+        out.append('}');
+    }
+
+    /**
+     * function to send an error response
+     * @param exchange
+     * @param status
+     * @param response
+     * @param message
+     * @throws IOException
+     */
+    private static void send(HttpExchange exchange, int status, Response response, String message) throws IOException {
+        error(response.text, message);
+        send(exchange, status, response);
+    }
+
+    /**
+     * function to log an unexpected error and answer it with 500
+     * @param exchange
+     * @param response
+     * @param e
+     * @throws IOException
+     */
+    private static void internalError(HttpExchange exchange, Response response, RuntimeException e) throws IOException {
+        System.err.println("Inventory server request failed: " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+        e.printStackTrace();
+        send(exchange, 500, response, "Internal server error");
+    }
+
+    /**
+     * function to send a response
+     * The text is encoded into the response's pooled byte buffer, which grows only when a response needs more room
+     * @param exchange
+     * @param status
+     * @param response
+     * @throws IOException
+     */
+    private static void send(HttpExchange exchange, int status, Response response) throws IOException {
+        if(status == 204){
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        int maxLength = (int) Math.ceil(response.text.length() * (double) response.encoder.maxBytesPerChar());
+        if(response.bytes.capacity() < maxLength){
+            response.bytes = ByteBuffer.allocate(maxLength);
+        }
+        ByteBuffer bytes = response.bytes;
+        bytes.clear();
+        response.encoder.reset();
+        response.encoder.encode(CharBuffer.wrap(response.text), bytes, true);
+        response.encoder.flush(bytes);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.position());
+        try(OutputStream out = exchange.getResponseBody()){
+            out.write(bytes.array(), 0, bytes.position());
+        }
+    }
+
+    /**
+     * function to take a response buffer from the pool
+     * @return empty buffer
+     */
+    private Response borrowBuffer(){
+        Response response = buffers.poll();
+        return response != null ? response : new Response();
+    }
+
+    /**
+     * function to give a response buffer back to the pool
+     * @param response
+     */
+    private void returnBuffer(Response response){
+        if(response.text.capacity() <= MAX_POOLED_CAPACITY){
+            response.text.setLength(0);
+            buffers.offer(response);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package server;
+
+import model.InHouse;
+import model.Outsourced;
+import model.Part;
+import model.PartQuantities;
+import model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON writing and reading for the inventory server
+ * Reads flat objects whose values are strings, numbers, booleans, null or arrays of numbers
+ * Malformed text, including anything after the closing brace, throws IllegalArgumentException
+ * @author Andre Simmons
+ */
+public class Json {
+
+    /**
+     * function to write a part as a JSON object
+     * @param out
+     * @param part
+     */
+    public static void writePart(StringBuilder out, Part part){
+        out.append("{\"id\":").append(part.getId());
+        out.append(",\"type\":\"").append(part instanceof InHouse ? "inhouse" : part instanceof Outsourced ? "outsourced" : "part");
+        out.append("\",\"name\":");
+        writeString(out, part.getName());
+        out.append(",\"price\":").append(part.getPrice());
+        out.append(",\"stock\":").append(part.getStock());
+        out.append(",\"min\":").append(part.getMin());
+        out.append(",\"max\":").append(part.getMax());
+        if(part instanceof InHouse){
+            out.append(",\"machineId\":").append(((InHouse) part).getMachineId());
+        } else if(part instanceof Outsourced){
+            out.append(",\"companyName\":");
+            writeString(out, ((Outsourced) part).getCompanyName());
+        }
+        out.append('}');
+    }
+
+    /**
+     * function to write a product as a JSON object, with its associated parts and sub-assemblies as ids and quantities
+     * @param out
+     * @param product
+     */
+    public static void writeProduct(StringBuilder out, Product product){
+        out.append("{\"id\":").append(product.getId());
+        out.append(",\"name\":");
+        writeString(out, product.getName());
+        out.append(",\"price\":").append(product.getPrice());
+        out.append(",\"stock\":").append(product.getStock());
+        out.append(",\"min\":").append(product.getMin());
+        out.append(",\"max\":").append(product.getMax());
+        out.append(",\"parts\":[");
+        PartQuantities associatedParts = product.getAssociatedParts();
+        for(int i = 0; i < associatedParts.size(); i++){
+            if(i > 0){
+                out.append(',');
+            }
+            out.append("{\"id\":").append(associatedParts.partId(i))
+                    .append(",\"quantity\":").append(associatedParts.quantity(i)).append('}');
+        }
+        out.append("],\"subAssemblies\":[");
+        PartQuantities subAssemblies = product.getSubAssemblies();
+        for(int i = 0; i < subAssemblies.size(); i++){
+            if(i > 0){
+                out.append(',');
+            }
+            out.append("{\"id\":").append(subAssemblies.partId(i))
+                    .append(",\"quantity\":").append(subAssemblies.quantity(i)).append('}');
+        }
+        out.append("]}");
+    }
+
+    /**
+     * function to write a JSON string with escaping
+     * @param out
+     * @param value
+     */
+    public static void writeString(StringBuilder out, String value){
+        if(value == null){
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if(c < 0x20){
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * function to read a flat JSON object
+     * Strings are returned as String, numbers as Double, arrays as List of Double
+     * @param text
+     * @return fields of the object
+     * @throws IllegalArgumentException if the text is not exactly one such object
+     */
+    public static Map<String, Object> readObject(String text){
+        Reader reader = new Reader(text);
+        Map<String, Object> fields = new HashMap<>();
+        reader.expect('{');
+        if(reader.peek() == '}'){
+            reader.position++;
+            reader.expectEnd();
+            return fields;
+        }
+        while(true){
+            String key = reader.readString();
+            reader.expect(':');
+            fields.put(key, reader.readValue());
+            char next = reader.next();
+            if(next == '}'){
+                reader.expectEnd();
+                return fields;
+            }
+            if(next != ','){
+                throw new IllegalArgumentException("Expected , or } at " + reader.position);
+            }
+        }
+    }
+
+    /**
+     * Reads JSON text one value at a time
+     */
+    private static class Reader {
+        private final String text;
+        private int position;
+
+        private Reader(String text){
+            this.text = text;
+        }
+
+        private char peek(){
+            while(position < text.length() && Character.isWhitespace(text.charAt(position))){
+                position++;
+            }
+            if(position >= text.length()){
+                throw new IllegalArgumentException("Unexpected end of JSON");
+            }
+            return text.charAt(position);
+        }
+
+        private char next(){
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        private void expect(char expected){
+            if(next() != expected){
+                throw new IllegalArgumentException("Expected " + expected + " at " + (position - 1));
+            }
+        }
+
+        private void expectEnd(){
+            while(position < text.length() && Character.isWhitespace(text.charAt(position))){
+                position++;
+            }
+            if(position < text.length()){
+                throw new IllegalArgumentException("Unexpected text after the object at " + position);
+            }
+        }
+
+        private Object readValue(){
+            char c = peek();
+            if(c == '"'){
+                return readString();
+            }
+            if(c == '['){
+                position++;
+                List<Double> values = new ArrayList<>();
+                if(peek() == ']'){
+                    position++;
+                    return values;
+                }
+                while(true){
+                    values.add(readNumber());
+                    char next = next();
+                    if(next == ']'){
+                        return values;
+                    }
+                    if(next != ','){
+                        throw new IllegalArgumentException("Expected , or ] at " + (position - 1));
+                    }
+                }
+            }
+            if(text.startsWith("true", position)){
+                position += 4;
+                return Boolean.TRUE;
+            }
+            if(text.startsWith("false", position)){
+                position += 5;
+                return Boolean.FALSE;
+            }
+            if(text.startsWith("null", position)){
+                position += 4;
+                return null;
+            }
+            return readNumber();
+        }
+
+        private double readNumber(){
+            peek();
+            int start = position;
+            while(position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0){
+                position++;
+            }
+            return Double.parseDouble(text.substring(start, position));
+        }
+
+        private String readString(){
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while(true){
+                if(position >= text.length()){
+                    throw new IllegalArgumentException("Unterminated string");
+                }
+                char c = text.charAt(position++);
+                if(c == '"'){
+                    return value.toString();
+                }
+                if(c == '\\'){
+                    if(position >= text.length()){
+                        throw new IllegalArgumentException("Unterminated string");
+                    }
+                    char escaped = text.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            value.append('\n');
+                            break;
+                        case 'r':
+                            value.append('\r');
+                            break;
+                        case 't':
+                            value.append('\t');
+                            break;
+                        case 'b':
+                            value.append('\b');
+                            break;
+                        case 'f':
+                            value.append('\f');
+                            break;
+                        case 'u':
+                            value.append(readHexChar());
+                            break;
+                        default:
+                            value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+        }
+
+        private char readHexChar(){
+            if(position + 4 > text.length()){
+                throw new IllegalArgumentException("Expected 4 hex digits after \\u at " + position);
+            }
+            int code = 0;
+            for(int i = 0; i < 4; i++){
+                int digit = Character.digit(text.charAt(position + i), 16);
+                if(digit < 0){
+                    throw new IllegalArgumentException("Expected 4 hex digits after \\u at " + position);
+                }
+                code = code * 16 + digit;
+            }
+            position += 4;
+            return (char) code;
+        }
+    }
+}
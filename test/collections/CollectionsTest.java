@@ -0,0 +1,209 @@
+package collections;
+
+import testing.Check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks IntIntMap, IntLongMap, IntObjectMap and IntSet against HashMap and HashSet with random interleaved changes
+ * Keys come from a small range around 0 so probe runs collide, keys are removed from the middle of runs
+ * and the zero key is used often. Pass a seed to repeat a run
+ * @author Andre Simmons
+ */
+public class CollectionsTest {
+
+    /**
+     * Number of random changes made to each collection
+     */
+    private static final int OPERATIONS = 200_000;
+
+    /**
+     * Keys are drawn from -KEY_RANGE to KEY_RANGE
+     */
+    private static final int KEY_RANGE = 2_000;
+
+    public static void main(String[] args){
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 482L;
+        System.out.println("CollectionsTest seed " + seed);
+        intIntMap(new Random(seed));
+        intLongMap(new Random(seed));
+        intObjectMap(new Random(seed));
+        intSet(new Random(seed));
+        Check.done(CollectionsTest.class);
+    }
+
+    /**
+     * Puts, removes and total adds with values past the int range, including adds that bring a total to 0,
+     * and an add that would overflow a long
+     * @param random
+     */
+    private static void intLongMap(Random random){
+        IntLongMap map = new IntLongMap();
+        Map<Integer, Long> expected = new HashMap<>();
+        for(int i = 0; i < OPERATIONS; i++){
+            int key = key(random);
+            int choice = random.nextInt(100);
+            if(choice < 35){
+                long value = (random.nextInt(11) - 5) * (long) Integer.MAX_VALUE;
+                Long previous = expected.put(key, value);
+                Check.equal(previous == null ? 0L : previous, map.put(key, value), "IntLongMap put " + key);
+            } else if(choice < 55){
+                Long previous = expected.remove(key);
+                Check.equal(previous == null ? 0L : previous, map.remove(key), "IntLongMap remove " + key);
+            } else if(choice < 90){
+                long current = expected.getOrDefault(key, 0L);
+                long delta = random.nextBoolean() && current != 0 ? -current : (random.nextInt(7) - 3) * (long) Integer.MAX_VALUE;
+                long value = current + delta;
+                if(value == 0){
+                    expected.remove(key);
+                } else {
+                    expected.put(key, value);
+                }
+                Check.equal(value, map.add(key, delta), "IntLongMap add " + key);
+            } else if(choice < 99){
+                Check.equal(expected.getOrDefault(key, 0L), map.get(key), "IntLongMap get " + key);
+                Check.equal(expected.getOrDefault(key, -99L), map.getOrDefault(key, -99), "IntLongMap getOrDefault " + key);
+            } else if(random.nextInt(20) == 0){
+                expected.clear();
+                map.clear();
+            }
+            Check.equal(expected.containsKey(key), map.containsKey(key), "IntLongMap containsKey " + key);
+            Check.equal(expected.size(), map.size(), "IntLongMap size");
+        }
+        Map<Integer, Long> visited = new HashMap<>();
+        map.forEach((key, value) -> Check.that(visited.put(key, value) == null, "IntLongMap visits " + key + " once"));
+        Check.equal(expected, visited, "IntLongMap entries");
+        int[] keys = map.keys();
+        int[] expectedKeys = expected.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(keys);
+        Arrays.sort(expectedKeys);
+        Check.that(Arrays.equals(expectedKeys, keys), "IntLongMap keys");
+
+        map.put(1, Long.MAX_VALUE);
+        try {
+            map.add(1, 1);
+            Check.that(false, "IntLongMap add past Long.MAX_VALUE throws");
+        } catch (ArithmeticException e) {
+            Check.equal(Long.MAX_VALUE, map.get(1), "IntLongMap value unchanged after overflow");
+        }
+    }
+
+    /**
+     * Puts, removes and counter adds, including adds that bring a count to 0 and remove the key
+     * @param random
+     */
+    private static void intIntMap(Random random){
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for(int i = 0; i < OPERATIONS; i++){
+            int key = key(random);
+            int choice = random.nextInt(100);
+            if(choice < 35){
+                int value = random.nextInt(11) - 5;
+                Integer previous = expected.put(key, value);
+                Check.equal(previous == null ? 0 : previous, map.put(key, value), "IntIntMap put " + key);
+            } else if(choice < 55){
+                Integer previous = expected.remove(key);
+                Check.equal(previous == null ? 0 : previous, map.remove(key), "IntIntMap remove " + key);
+            } else if(choice < 90){
+                int current = expected.getOrDefault(key, 0);
+                int delta = random.nextBoolean() && current != 0 ? -current : random.nextInt(7) - 3;
+                int value = current + delta;
+                if(value == 0){
+                    expected.remove(key);
+                } else {
+                    expected.put(key, value);
+                }
+                Check.equal(value, map.add(key, delta), "IntIntMap add " + key);
+            } else if(choice < 99){
+                Check.equal(expected.getOrDefault(key, 0), map.get(key), "IntIntMap get " + key);
+                Check.equal(expected.getOrDefault(key, -99), map.getOrDefault(key, -99), "IntIntMap getOrDefault " + key);
+            } else if(random.nextInt(20) == 0){
+                expected.clear();
+                map.clear();
+            }
+            Check.equal(expected.containsKey(key), map.containsKey(key), "IntIntMap containsKey " + key);
+            Check.equal(expected.size(), map.size(), "IntIntMap size");
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> Check.that(visited.put(key, value) == null, "IntIntMap visits " + key + " once"));
+        Check.equal(expected, visited, "IntIntMap entries");
+    }
+
+    /**
+     * Puts, replaces and removes
+     * @param random
+     */
+    private static void intObjectMap(Random random){
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for(int i = 0; i < OPERATIONS; i++){
+            int key = key(random);
+            int choice = random.nextInt(100);
+            if(choice < 50){
+                String value = "v" + random.nextInt(100);
+                Check.equal(expected.put(key, value), map.put(key, value), "IntObjectMap put " + key);
+            } else if(choice < 80){
+                Check.equal(expected.remove(key), map.remove(key), "IntObjectMap remove " + key);
+            } else if(choice < 99){
+                Check.equal(expected.get(key), map.get(key), "IntObjectMap get " + key);
+            } else if(random.nextInt(20) == 0){
+                expected.clear();
+                map.clear();
+            }
+            Check.equal(expected.containsKey(key), map.containsKey(key), "IntObjectMap containsKey " + key);
+            Check.equal(expected.size(), map.size(), "IntObjectMap size");
+        }
+        Map<Integer, String> visited = new HashMap<>();
+        map.forEach((value, key) -> Check.that(visited.put(key, value) == null, "IntObjectMap visits " + key + " once"));
+        Check.equal(expected, visited, "IntObjectMap entries");
+    }
+
+    /**
+     * Adds and removes
+     * @param random
+     */
+    private static void intSet(Random random){
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        for(int i = 0; i < OPERATIONS; i++){
+            int key = key(random);
+            int choice = random.nextInt(100);
+            if(choice < 50){
+                Check.equal(expected.add(key), set.add(key), "IntSet add " + key);
+            } else if(choice < 90){
+                Check.equal(expected.remove(key), set.remove(key), "IntSet remove " + key);
+            } else if(random.nextInt(200) == 0){
+                expected.clear();
+                set.clear();
+            }
+            Check.equal(expected.contains(key), set.contains(key), "IntSet contains " + key);
+            Check.equal(expected.size(), set.size(), "IntSet size");
+        }
+        List<Integer> visited = new ArrayList<>();
+        set.forEach(visited::add);
+        Check.equal(expected, new HashSet<>(visited), "IntSet keys");
+        Check.equal(expected.size(), visited.size(), "IntSet visits each key once");
+        int[] keys = set.toArray();
+        int[] expectedKeys = expected.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(keys);
+        Arrays.sort(expectedKeys);
+        Check.that(Arrays.equals(expectedKeys, keys), "IntSet toArray");
+    }
+
+    /**
+     * function to pick a key, 0 more often than the others
+     * @param random
+     * @return key
+     */
+    private static int key(Random random){
+        return random.nextInt(10) == 0 ? 0 : random.nextInt(2 * KEY_RANGE + 1) - KEY_RANGE;
+    }
+}
@@ -0,0 +1,435 @@
+package model;
+
+import testing.Check;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the inventory store saves changes and loads them back
+ * Each check opens a store in a new temporary folder, makes changes, closes it and opens it again
+ * @author Andre Simmons
+ */
+public class InventoryStoreTest {
+
+    /**
+     * Number of log records written before the store compacts the log into a snapshot
+     */
+    private static final int RECORDS_PER_SNAPSHOT = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        logTailAfterSnapshot();
+        inPlaceChanges();
+        longNames();
+        nullNames();
+        tornFinalRecord();
+        oversizeFinalRecord();
+        corruptFinalRecord();
+        versionTwoSnapshot();
+        olderSnapshotsDeleted();
+        versionOneSnapshot();
+        assemblyLoopInSnapshot();
+        writerFailure();
+        Check.done(InventoryStoreTest.class);
+    }
+
+    /**
+     * Changes made after the last snapshot are replayed from the log on top of it
+     * @throws IOException
+     */
+    private static void logTailAfterSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        InHouse wheel = new InHouse(Inventory.getNewPartId(), "Wheel", 4.50, 10, 1, 100, 7);
+        Outsourced bell = new Outsourced(Inventory.getNewPartId(), "Bell", 2.25, 5, 0, 20, null);
+        Inventory.addPart(wheel);
+        Inventory.addPart(bell);
+        Product bike = new Product(Inventory.getNewProductId(), "Bike", 199.99, 3, 1, 10);
+        bike.addAssociatedPart(wheel, 2);
+        bike.addAssociatedPart(bell);
+        Inventory.addProduct(bike);
+        for(int stock = 0; stock < RECORDS_PER_SNAPSHOT; stock++){
+            Inventory.replacePart(new InHouse(wheel.getId(), "Wheel", 4.50, stock, 0, RECORDS_PER_SNAPSHOT, 7));
+        }
+        Part spoke = new Part(Inventory.getNewPartId(), "Spoke", 0.10, 500, 100, 1000);
+        Inventory.addPart(spoke);
+        Inventory.deletePartFromProducts(bell);
+        Inventory.deletePart(bell);
+        store.close();
+
+        Check.that(InventoryStore.latestSnapshot(directory) != null, "a snapshot is written");
+        Check.that(Files.size(directory.resolve("inventory.log")) > 0, "changes after the snapshot are in the log");
+
+        InventoryStore reopened = reopen(directory);
+        Check.equal(2, Inventory.getAllParts().size(), "parts after replay");
+        Check.equal(RECORDS_PER_SNAPSHOT - 1, Inventory.lookupPart(wheel.getId()).getStock(), "last wheel stock");
+        Check.equal(7, ((InHouse) Inventory.lookupPart(wheel.getId())).getMachineId(), "wheel machine id");
+        Check.equal("Spoke", Inventory.lookupPart(spoke.getId()).getName(), "part added after the snapshot");
+        Check.that(Inventory.lookupPart(bell.getId()) == null, "part deleted after the snapshot stays deleted");
+        Product loaded = Inventory.lookupProduct(bike.getId());
+        Check.equal("Bike", loaded.getName(), "product name");
+        Check.equal(2, loaded.getAssociatedPartQuantity(wheel.getId()), "wheel quantity");
+        Check.equal(0, loaded.getAssociatedPartQuantity(bell.getId()), "deleted part is no longer associated");
+        Check.that(Inventory.getNewPartId() > spoke.getId(), "new part ids follow the loaded ones");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Fields set on parts and products already in the inventory are saved
+     * @throws IOException
+     */
+    private static void inPlaceChanges() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        InHouse seat = new InHouse(Inventory.getNewPartId(), "Seat", 15.00, 10, 1, 50, 2);
+        Outsourced grip = new Outsourced(Inventory.getNewPartId(), "Grip", 3.00, 10, 1, 50, "Grips Co");
+        Inventory.addPart(seat);
+        Inventory.addPart(grip);
+        Product scooter = new Product(Inventory.getNewProductId(), "Scooter", 90.00, 4, 1, 20);
+        Inventory.addProduct(scooter);
+        seat.setStock(12);
+        seat.setPrice(16.50);
+        seat.setMachineId(5);
+        grip.setCompanyName("Grip Works");
+        grip.setName("Hand Grip");
+        scooter.setPrice(95.00);
+        scooter.setStock(6);
+        store.close();
+
+        InventoryStore reopened = reopen(directory);
+        InHouse loadedSeat = (InHouse) Inventory.lookupPart(seat.getId());
+        Check.equal(12, loadedSeat.getStock(), "part stock set in place");
+        Check.equal(16.50, loadedSeat.getPrice(), "part price set in place");
+        Check.equal(5, loadedSeat.getMachineId(), "machine id set in place");
+        Outsourced loadedGrip = (Outsourced) Inventory.lookupPart(grip.getId());
+        Check.equal("Grip Works", loadedGrip.getCompanyName(), "company name set in place");
+        Check.equal("Hand Grip", loadedGrip.getName(), "part name set in place");
+        Product loadedScooter = Inventory.lookupProduct(scooter.getId());
+        Check.equal(95.00, loadedScooter.getPrice(), "product price set in place");
+        Check.equal(6, loadedScooter.getStock(), "product stock set in place");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Names too long for writeUTF and missing company names are saved and loaded back
+     * @throws IOException
+     */
+    private static void longNames() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        String longName = "Spoke \u00e9 ".repeat(10_000);
+        Outsourced spoke = new Outsourced(Inventory.getNewPartId(), longName, 0.20, 100, 10, 500, null);
+        Inventory.addPart(spoke);
+        Product wheel = new Product(Inventory.getNewProductId(), longName, 30.00, 4, 1, 20);
+        wheel.addAssociatedPart(spoke, 36);
+        Inventory.addProduct(wheel);
+        store.close();
+        Check.that(store.getFailure() == null, "long names do not fail the store");
+
+        InventoryStore reopened = reopen(directory);
+        Outsourced loadedSpoke = (Outsourced) Inventory.lookupPart(spoke.getId());
+        Check.equal(longName, loadedSpoke.getName(), "long part name");
+        Check.that(loadedSpoke.getCompanyName() == null, "missing company name stays missing");
+        Product loadedWheel = Inventory.lookupProduct(wheel.getId());
+        Check.equal(longName, loadedWheel.getName(), "long product name");
+        Check.equal(36, loadedWheel.getAssociatedPartQuantity(spoke.getId()), "part quantity after a long name");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Parts and products without a name are saved, loaded back, searched by id and looked up by name
+     * @throws IOException
+     */
+    private static void nullNames() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        Part washer = new Part(Inventory.getNewPartId(), null, 0.05, 900, 100, 5000);
+        Inventory.addPart(washer);
+        Part nut = new Part(Inventory.getNewPartId(), "Nut", 0.08, 900, 100, 5000);
+        Inventory.addPart(nut);
+        Product kit = new Product(Inventory.getNewProductId(), null, 3.00, 10, 1, 50);
+        kit.addAssociatedPart(washer, 12);
+        Inventory.addProduct(kit);
+        Check.equal(1, Inventory.searchParts("Nut").size(), "named part is found next to an unnamed one");
+        Check.equal(0, Inventory.searchParts("Nuts and bolts").size(), "long search skips the unnamed part");
+        store.close();
+        Check.that(store.getFailure() == null, "unnamed parts and products do not fail the store");
+
+        InventoryStore reopened = reopen(directory);
+        Check.that(Inventory.lookupPart(washer.getId()).getName() == null, "part name stays null");
+        Check.that(Inventory.lookupProduct(kit.getId()).getName() == null, "product name stays null");
+        Check.equal(12, Inventory.lookupProduct(kit.getId()).getAssociatedPartQuantity(washer.getId()), "unnamed quantity");
+        Check.equal(1, Inventory.searchParts(String.valueOf(washer.getId())).size(), "unnamed part is found by id");
+        Check.equal(1, Inventory.lookupPart((String) null).size(), "unnamed part is looked up by a null name");
+        Check.equal(1, Inventory.lookupProduct((String) null).size(), "unnamed product is looked up by a null name");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * A record cut off part way through is ignored and cut from the log, keeping the records before it
+     * @throws IOException
+     */
+    private static void tornFinalRecord() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        Part gear = new Part(Inventory.getNewPartId(), "Gear", 3.00, 8, 1, 50);
+        Inventory.addPart(gear);
+        store.close();
+        Path log = directory.resolve("inventory.log");
+        long validLength = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        InventoryStore reopened = reopen(directory);
+        Check.equal("Gear", Inventory.lookupPart(gear.getId()).getName(), "record before the torn one is replayed");
+        Check.equal(validLength, Files.size(log), "torn record is cut from the log");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * A record length far past the end of the file is taken as the end of the log instead of being allocated
+     * @throws IOException
+     */
+    private static void oversizeFinalRecord() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        Part hub = new Part(Inventory.getNewPartId(), "Hub", 14.00, 3, 1, 25);
+        Inventory.addPart(hub);
+        store.close();
+        Path log = directory.resolve("inventory.log");
+        long validLength = Files.size(log);
+        Files.write(log, new byte[]{0x7F, -1, -1, -16, 1, 2, 3, 4, 5, 6, 7, 8}, StandardOpenOption.APPEND);
+
+        InventoryStore reopened = reopen(directory);
+        Check.equal("Hub", Inventory.lookupPart(hub.getId()).getName(), "record before the oversize one is replayed");
+        Check.equal(validLength, Files.size(log), "oversize record is cut from the log");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * A last record that fails its checksum is ignored, keeping the records before it
+     * @throws IOException
+     */
+    private static void corruptFinalRecord() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        Part chain = new Part(Inventory.getNewPartId(), "Chain", 12.00, 4, 1, 20);
+        Part pedal = new Part(Inventory.getNewPartId(), "Pedal", 6.00, 9, 2, 30);
+        Inventory.addPart(chain);
+        Inventory.addPart(pedal);
+        store.close();
+        Path log = directory.resolve("inventory.log");
+        byte[] bytes = Files.readAllBytes(log);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(log, bytes);
+
+        InventoryStore reopened = reopen(directory);
+        Check.that(Inventory.lookupPart(chain.getId()) != null, "record before the corrupt one is replayed");
+        Check.that(Inventory.lookupPart(pedal.getId()) == null, "corrupt record is not replayed");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Version 2 snapshots have the same layout without sub-assemblies
+     * @throws IOException
+     */
+    private static void versionTwoSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        ByteBuffer snapshot = ByteBuffer.wrap(sampleSnapshot(directory));
+        snapshot.putInt(4, 2);
+        Files.write(directory.resolve("inventory.snapshot"), snapshot.array());
+
+        InventoryStore reopened = reopen(directory);
+        checkSample("version 2");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * A new snapshot is written to a file of its own and the one it was built from is deleted afterwards
+     * @throws IOException
+     */
+    private static void olderSnapshotsDeleted() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        Files.write(directory.resolve("inventory.snapshot"), sampleSnapshot(directory));
+
+        InventoryStore store = reopen(directory);
+        for(int stock = 0; stock < RECORDS_PER_SNAPSHOT; stock++){
+            Inventory.replacePart(new InHouse(1, "Frame", 80.00, stock, 0, RECORDS_PER_SNAPSHOT, 3));
+        }
+        store.close();
+        Path latest = InventoryStore.latestSnapshot(directory);
+        Check.that(latest != null && !latest.getFileName().toString().equals("inventory.snapshot"),
+                "new snapshot gets a numbered file");
+        Check.that(!Files.exists(directory.resolve("inventory.snapshot")), "snapshot it was built from is deleted");
+        Check.that(!Files.exists(directory.resolve("inventory.snapshot.tmp")), "temporary file is renamed");
+
+        Inventory.clear();
+        MappedSnapshot preview = InventoryStore.openLatestSnapshot(directory);
+        Check.equal(2, preview.partRows().size(), "part rows in the latest snapshot");
+        Check.equal(RECORDS_PER_SNAPSHOT - 1, preview.partRows().get(0).getStock(), "part row decoded on demand");
+        Check.equal(2, preview.productRows().get(0).getAssociatedPartQuantity(2), "product row decoded on demand");
+        Check.that(Inventory.getAllParts().isEmpty(), "reading rows leaves the inventory alone");
+
+        InventoryStore reopened = reopen(directory);
+        Check.equal(RECORDS_PER_SNAPSHOT - 1, Inventory.lookupPart(1).getStock(), "stock from the numbered snapshot");
+        Check.equal(2, Inventory.lookupProduct(1).getAssociatedPartQuantity(2), "product from the numbered snapshot");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Version 1 snapshots list a part id once for every unit of the part, with no quantities
+     * @throws IOException
+     */
+    private static void versionOneSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        ByteBuffer snapshot = ByteBuffer.wrap(sampleSnapshot(directory));
+        int partsStart = snapshot.getInt(40);
+        int productsStart = snapshot.getInt(44);
+        int adjacencyStart = snapshot.getInt(48);
+        int frameId = snapshot.getInt(partsStart + 8);
+        int forkId = snapshot.getInt(partsStart + 36 + 8);
+        ByteBuffer versionOne = ByteBuffer.allocate(adjacencyStart + 4 * 3);
+        versionOne.put(snapshot.array(), 0, adjacencyStart);
+        versionOne.putInt(4, 1);
+        versionOne.putInt(productsStart + 32, 3);
+        versionOne.putInt(frameId).putInt(forkId).putInt(forkId);
+        Files.write(directory.resolve("inventory.snapshot"), versionOne.array());
+
+        InventoryStore reopened = reopen(directory);
+        checkSample("version 1");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * Sub-assembly links that build a product from itself are dropped when a snapshot is loaded
+     * @throws IOException
+     */
+    private static void assemblyLoopInSnapshot() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        Product frame = new Product(1, "Frame", 80.00, 5, 1, 15);
+        Product wheelSet = new Product(2, "Wheel Set", 40.00, 5, 1, 15);
+        Product bike = new Product(3, "Bike", 250.00, 5, 1, 15);
+        frame.getSubAssemblies().add(wheelSet.getId(), 1);
+        wheelSet.getSubAssemblies().add(frame.getId(), 1);
+        bike.getSubAssemblies().add(frame.getId(), 1);
+        bike.getSubAssemblies().add(bike.getId(), 1);
+        MappedSnapshot.write(directory.resolve("inventory.snapshot"), 0, 0, 3, Arrays.asList(),
+                Arrays.asList(frame, wheelSet, bike));
+
+        InventoryStore reopened = reopen(directory);
+        Product loadedFrame = Inventory.lookupProduct(frame.getId());
+        Product loadedWheelSet = Inventory.lookupProduct(wheelSet.getId());
+        Product loadedBike = Inventory.lookupProduct(bike.getId());
+        Check.that(!loadedFrame.usesSubAssembly(loadedFrame.getId()), "frame loop is dropped");
+        Check.that(!loadedWheelSet.usesSubAssembly(loadedWheelSet.getId()), "wheel set loop is dropped");
+        Check.that(!loadedBike.usesSubAssembly(loadedBike.getId()), "product built from itself is fixed");
+        Check.that(loadedBike.usesSubAssembly(frame.getId()), "links outside the loop are kept");
+        Check.equal(0, new BomExplosion().explode(loadedBike, 1).size(), "explosion finishes without parts");
+        closeAndClear(reopened, directory);
+    }
+
+    /**
+     * A failed write stops the store, reports the error once and drops later changes instead of queueing them
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    private static void writerFailure() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("inventory-store");
+        InventoryStore store = InventoryStore.open(directory);
+        AtomicReference<Throwable> reported = new AtomicReference<>();
+        store.setFailureHandler(reported::set);
+        Part rim = new Part(Inventory.getNewPartId(), "Rim", 9.00, 6, 1, 40);
+        Inventory.addPart(rim);
+        deleteFolder(directory);
+        for(int stock = 0; stock < RECORDS_PER_SNAPSHOT; stock++){
+            Inventory.replacePart(new Part(rim.getId(), "Rim", 9.00, stock, 0, RECORDS_PER_SNAPSHOT));
+        }
+        for(int wait = 0; wait < 500 && reported.get() == null; wait++){
+            Thread.sleep(10);
+        }
+        Check.that(store.getFailure() != null, "snapshot written to a missing folder fails the store");
+        Check.that(reported.get() == store.getFailure(), "failure handler is called with the error");
+        Inventory.replacePart(new Part(rim.getId(), "Rim", 9.00, 1, 0, 40));
+        AtomicReference<Throwable> late = new AtomicReference<>();
+        store.setFailureHandler(late::set);
+        Check.that(late.get() == store.getFailure(), "handler set after the failure is called right away");
+        store.close();
+        Inventory.clear();
+    }
+
+    /**
+     * function to write a version 3 snapshot with a frame, a fork and a product using one frame and two forks
+     * @param directory
+     * @return snapshot bytes
+     * @throws IOException
+     */
+    private static byte[] sampleSnapshot(Path directory) throws IOException {
+        Path file = directory.resolve("sample.snapshot");
+        InHouse frame = new InHouse(1, "Frame", 80.00, 12, 2, 40, 3);
+        Outsourced fork = new Outsourced(2, "Fork", 35.00, 20, 4, 60, "Forks Inc");
+        Product bike = new Product(1, "Bike", 250.00, 5, 1, 15);
+        bike.addAssociatedPart(frame);
+        bike.addAssociatedPart(fork, 2);
+        MappedSnapshot.write(file, 0, 2, 1, Arrays.asList(frame, fork), Arrays.asList(bike));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.delete(file);
+        return bytes;
+    }
+
+    /**
+     * function to check the inventory loaded from the sample snapshot
+     * @param version
+     */
+    private static void checkSample(String version){
+        Check.equal(2, Inventory.getAllParts().size(), version + " parts");
+        Check.equal(3, ((InHouse) Inventory.lookupPart(1)).getMachineId(), version + " frame machine id");
+        Check.equal("Forks Inc", ((Outsourced) Inventory.lookupPart(2)).getCompanyName(), version + " fork company");
+        Product bike = Inventory.lookupProduct(1);
+        Check.equal("Bike", bike.getName(), version + " product name");
+        Check.equal(1, bike.getAssociatedPartQuantity(1), version + " frame quantity");
+        Check.equal(2, bike.getAssociatedPartQuantity(2), version + " fork quantity");
+        Check.that(bike.getSubAssemblies().isEmpty(), version + " has no sub-assemblies");
+    }
+
+    /**
+     * function to empty the inventory and open the store in the folder again
+     * @param directory
+     * @return opened store
+     * @throws IOException
+     */
+    private static InventoryStore reopen(Path directory) throws IOException {
+        Inventory.clear();
+        return InventoryStore.open(directory);
+    }
+
+    /**
+     * function to close a store, empty the inventory and delete the folder
+     * @param store
+     * @param directory
+     * @throws IOException
+     */
+    private static void closeAndClear(InventoryStore store, Path directory) throws IOException {
+        store.close();
+        Inventory.clear();
+        deleteFolder(directory);
+    }
+
+    /**
+     * function to delete a folder and everything in it
+     * @param directory
+     * @throws IOException
+     */
+    private static void deleteFolder(Path directory) throws IOException {
+        try(Stream<Path> paths = Files.walk(directory)){
+            for(Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator){
+                Files.delete(path);
+            }
+        }
+    }
+}
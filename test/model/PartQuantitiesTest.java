@@ -0,0 +1,112 @@
+package model;
+
+import testing.Check;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks PartQuantities against a LinkedHashMap of counts with random interleaved adds and removes
+ * Removes often take a part down to 0 units, which must drop it without changing the order of the rest
+ * Pass a seed to repeat a run
+ * @author Andre Simmons
+ */
+public class PartQuantitiesTest {
+
+    /**
+     * Number of random changes made
+     */
+    private static final int OPERATIONS = 200_000;
+
+    /**
+     * Part ids are drawn from 1 to PART_RANGE
+     */
+    private static final int PART_RANGE = 500;
+
+    public static void main(String[] args){
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 482L;
+        System.out.println("PartQuantitiesTest seed " + seed);
+        Random random = new Random(seed);
+        PartQuantities quantities = new PartQuantities();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        long expectedTotal = 0;
+        for(int i = 0; i < OPERATIONS; i++){
+            int partId = 1 + random.nextInt(PART_RANGE);
+            int count = expected.getOrDefault(partId, 0);
+            int choice = random.nextInt(100);
+            if(choice < 45){
+                int quantity = 1 + random.nextInt(5);
+                expected.put(partId, count + quantity);
+                expectedTotal += quantity;
+                Check.equal(count == 0, quantities.add(partId, quantity), "add " + partId);
+            } else if(choice < 90){
+                int quantity = random.nextBoolean() ? count : 1 + random.nextInt(5);
+                int removed = Math.min(count, quantity);
+                if(count - removed == 0){
+                    expected.remove(partId);
+                } else {
+                    expected.put(partId, count - removed);
+                }
+                expectedTotal -= removed;
+                Check.equal(removed, quantities.remove(partId, quantity), "remove " + partId);
+            } else if(choice < 99){
+                PartQuantities copy = new PartQuantities(quantities);
+                Check.equal(entries(expected), entries(counts(copy)), "copy in order");
+            } else if(random.nextInt(20) == 0){
+                expected.clear();
+                expectedTotal = 0;
+                quantities.clear();
+            }
+            Check.equal(expected.getOrDefault(partId, 0), quantities.count(partId), "count " + partId);
+            Check.equal(expected.size(), quantities.size(), "size");
+            Check.equal(expectedTotal, quantities.getTotalQuantity(), "total quantity");
+        }
+        Check.equal(entries(expected), entries(counts(quantities)), "parts and quantities in order");
+        overflow();
+        Check.done(PartQuantitiesTest.class);
+    }
+
+    /**
+     * Adding units past the largest int quantity throws and leaves the multiset as it was
+     */
+    private static void overflow(){
+        PartQuantities quantities = new PartQuantities();
+        quantities.add(7, Integer.MAX_VALUE - 1);
+        try {
+            quantities.add(7, 2);
+            Check.that(false, "quantity overflow throws");
+        } catch (ArithmeticException e) {
+            Check.equal(Integer.MAX_VALUE - 1, quantities.count(7), "quantity unchanged after overflow");
+            Check.equal((long) Integer.MAX_VALUE - 1, quantities.getTotalQuantity(), "total unchanged after overflow");
+        }
+        quantities.add(7, 1);
+        Check.equal(Integer.MAX_VALUE, quantities.count(7), "quantity up to the largest int");
+    }
+
+    /**
+     * function to list the entries of a map in its order
+     * @param counts
+     * @return part id and quantity entries
+     */
+    private static List<Map.Entry<Integer, Integer>> entries(Map<Integer, Integer> counts){
+        return new ArrayList<>(counts.entrySet());
+    }
+
+    /**
+     * function to read every part and quantity by position
+     * @param quantities
+     * @return quantity of each part, in position order
+     */
+    private static Map<Integer, Integer> counts(PartQuantities quantities){
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        for(int i = 0; i < quantities.size(); i++){
+            Check.that(quantities.quantity(i) > 0, "position " + i + " holds units");
+            Check.that(counts.put(quantities.partId(i), quantities.quantity(i)) == null,
+                    "part " + quantities.partId(i) + " listed once");
+        }
+        return counts;
+    }
+}
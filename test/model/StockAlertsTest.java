@@ -0,0 +1,164 @@
+package model;
+
+import testing.Check;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Checks StockAlerts against a brute force scan and a PriorityQueue with random interleaved updates and removes
+ * Also counts the listener calls, one for every update and for every remove of a watched item
+ * Stock often lands exactly on min or max, where an alert starts or stops. Pass a seed to repeat a run
+ * @author Andre Simmons
+ */
+public class StockAlertsTest {
+
+    /**
+     * Number of random changes made
+     */
+    private static final int OPERATIONS = 100_000;
+
+    /**
+     * Item ids are drawn from 1 to ID_RANGE
+     */
+    private static final int ID_RANGE = 300;
+
+    /**
+     * Watched item whose stock, min and max the test changes in place
+     */
+    private static class Item {
+        private final int id;
+        private int stock;
+        private int min;
+        private int max;
+
+        private Item(int id){
+            this.id = id;
+        }
+
+        @Override
+        public String toString(){return "item " + id + " stock " + stock + " min " + min + " max " + max;}
+    }
+
+    public static void main(String[] args){
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 482L;
+        System.out.println("StockAlertsTest seed " + seed);
+        Random random = new Random(seed);
+        StockAlerts<Item> alerts = new StockAlerts<>(item -> item.id, item -> item.stock, item -> item.min, item -> item.max);
+        Map<Integer, Item> watched = new HashMap<>();
+        int[] notified = new int[1];
+        alerts.addListener(() -> notified[0]++);
+        int expectedNotified = 0;
+        for(int i = 0; i < OPERATIONS; i++){
+            int id = 1 + random.nextInt(ID_RANGE);
+            Item current = watched.get(id);
+            int choice = random.nextInt(100);
+            if(choice < 70){
+                Item item = current != null && random.nextInt(4) > 0 ? current : new Item(id);
+                setLevels(item, random);
+                alerts.update(item);
+                watched.put(id, item);
+                expectedNotified++;
+            } else if(choice < 85){
+                if(current != null){
+                    alerts.remove(current);
+                    watched.remove(id);
+                    expectedNotified++;
+                }
+            } else if(choice < 95){
+                Item other = new Item(id);
+                setLevels(other, random);
+                alerts.remove(other);
+                Check.equal(current != null && current.stock <= current.min, alerts.needsReorder(other),
+                        "needs reorder read by id after removing a different " + other);
+            } else {
+                for(Item item : new ArrayList<>(watched.values())){
+                    alerts.remove(item);
+                    expectedNotified++;
+                }
+                watched.clear();
+            }
+            if(current != null){
+                Item item = watched.get(id);
+                Check.equal(item != null && item.stock <= item.min, alerts.needsReorder(current), "needs reorder " + current);
+            }
+            checkCounts(alerts, watched);
+            Check.equal(expectedNotified, notified[0], "listener calls, none for removing an item that is not watched");
+            if(i % 100 == 0){
+                checkLists(alerts, watched);
+            }
+        }
+        checkLists(alerts, watched);
+        Check.done(StockAlertsTest.class);
+    }
+
+    /**
+     * function to give an item new levels, with the stock often exactly at its min or max
+     * @param item
+     * @param random
+     */
+    private static void setLevels(Item item, Random random){
+        item.min = random.nextInt(20);
+        item.max = item.min + random.nextInt(20);
+        switch (random.nextInt(4)) {
+            case 0:
+                item.stock = item.min;
+                break;
+            case 1:
+                item.stock = item.max;
+                break;
+            default:
+                item.stock = random.nextInt(50);
+        }
+    }
+
+    /**
+     * function to compare the alert counts with a scan of every watched item
+     * @param alerts
+     * @param watched
+     */
+    private static void checkCounts(StockAlerts<Item> alerts, Map<Integer, Item> watched){
+        int reorder = 0;
+        int overStocked = 0;
+        for(Item item : watched.values()){
+            if(item.stock <= item.min){
+                reorder++;
+            }
+            if(item.stock > item.max){
+                overStocked++;
+            }
+        }
+        Check.equal(reorder, alerts.getNeedsReorderCount(), "needs reorder count");
+        Check.equal(overStocked, alerts.getOverStockedCount(), "over stocked count");
+    }
+
+    /**
+     * function to compare the alert lists with the alerted items drained from priority queues
+     * @param alerts
+     * @param watched
+     */
+    private static void checkLists(StockAlerts<Item> alerts, Map<Integer, Item> watched){
+        Comparator<Item> byId = Comparator.comparingInt(item -> item.id);
+        PriorityQueue<Item> low = new PriorityQueue<>(
+                Comparator.comparingLong((Item item) -> (long) item.stock - item.min).thenComparing(byId));
+        PriorityQueue<Item> high = new PriorityQueue<>(
+                Comparator.comparingLong((Item item) -> (long) item.max - item.stock).thenComparing(byId));
+        low.addAll(watched.values());
+        high.addAll(watched.values());
+        List<Item> reorder = new ArrayList<>();
+        while(!low.isEmpty() && low.peek().stock <= low.peek().min){
+            reorder.add(low.poll());
+        }
+        List<Item> overStocked = new ArrayList<>();
+        while(!high.isEmpty() && high.peek().stock > high.peek().max){
+            overStocked.add(high.poll());
+        }
+        Check.equal(reorder, alerts.getNeedsReorder(), "needs reorder list");
+        Check.equal(overStocked, alerts.getOverStocked(), "over stocked list");
+    }
+}
@@ -0,0 +1,46 @@
+package server;
+
+import testing.Check;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Checks that Json.readObject reads well-formed objects and rejects malformed ones with IllegalArgumentException
+ * @author Andre Simmons
+ */
+public class JsonTest {
+
+    public static void main(String[] args){
+        Map<String, Object> fields = Json.readObject(" {\"name\":\"Bell \\u00e9\\\\\",\"price\":2.5,\"parts\":[1,2],\"ok\":true} \n");
+        Check.equal("Bell \u00e9\\", fields.get("name"), "string with escapes");
+        Check.equal(2.5, fields.get("price"), "number");
+        Check.equal(Arrays.asList(1.0, 2.0), fields.get("parts"), "array of numbers");
+        Check.equal(Boolean.TRUE, fields.get("ok"), "boolean");
+        Check.that(Json.readObject("{}").isEmpty(), "empty object");
+
+        rejects("{\"name\":\"Bell\\", "backslash at the end of the text");
+        rejects("{\"name\":\"\\u00", "\\u escape cut short");
+        rejects("{\"name\":\"\\u00zz\"}", "\\u escape with a letter that is not hex");
+        rejects("{\"name\":\"\\u+12a\"}", "\\u escape with a sign");
+        rejects("{\"name\":\"Bell\"}x", "text after the object");
+        rejects("{}{}", "second object after an empty one");
+        rejects("{\"price\":}", "missing value");
+        rejects("{\"name\":\"Bell\"", "missing closing brace");
+        Check.done(JsonTest.class);
+    }
+
+    /**
+     * function to check that reading some text throws IllegalArgumentException
+     * @param text
+     * @param description
+     */
+    private static void rejects(String text, String description){
+        try {
+            Json.readObject(text);
+            Check.that(false, description + " is rejected");
+        } catch (IllegalArgumentException e) {
+            Check.that(true, description + " is rejected");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package testing;
+
+import java.util.Objects;
+
+/**
+ * Small assertion helper for the tests, which run as plain main methods
+ * A failed check throws an AssertionError, which ends the test with a stack trace and a non-zero exit code
+ * @author Andre Simmons
+ */
+public class Check {
+
+    /**
+     * Number of checks passed so far
+     */
+    private static int passed;
+
+    private Check(){}
+
+    /**
+     * function to check that a condition holds
+     * @param condition
+     * @param message
+     */
+    public static void that(boolean condition, String message){
+        if(!condition){
+            throw new AssertionError(message);
+        }
+        passed++;
+    }
+
+    /**
+     * function to check that two values are equal
+     * @param expected
+     * @param actual
+     * @param message
+     */
+    public static void equal(Object expected, Object actual, String message){
+        if(!Objects.equals(expected, actual)){
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+        passed++;
+    }
+
+    /**
+     * function to print how many checks a test passed
+     * @param test
+     */
+    public static void done(Class<?> test){
+        System.out.println(test.getSimpleName() + ": " + passed + " checks passed");
+    }
+}